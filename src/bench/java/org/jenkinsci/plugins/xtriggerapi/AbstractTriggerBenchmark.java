@@ -0,0 +1,80 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import hudson.model.BuildableItem;
+import hudson.model.Job;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the periodic dispatch and the asynchronous polling task of {@link AbstractTrigger}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AbstractTriggerBenchmark {
+
+    @Param({"1", "100"})
+    public int nodes;
+
+    @Param({"false", "true"})
+    public boolean changed;
+
+    private MockedJenkins jenkins;
+
+    private BenchmarkTrigger trigger;
+
+    private AbstractTrigger.Runner runner;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        jenkins = new MockedJenkins();
+        File rootDir = Files.createTempDirectory("xtrigger-bench").toFile();
+        rootDir.deleteOnExit();
+        jenkins.addNodes(nodes, rootDir);
+
+        Job<?, ?> job = MockedJenkins.job("bench-job");
+        trigger = new BenchmarkTrigger();
+        trigger.setJob((BuildableItem) job);
+        trigger.changed = changed;
+        runner = trigger.new Runner("BenchmarkTrigger");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jenkins.close();
+    }
+
+    /**
+     * Cron tick: eligibility checks and submission to the descriptor executor
+     */
+    @Benchmark
+    public void dispatch() {
+        trigger.run();
+    }
+
+    /**
+     * Full poll: node resolution, stub check, log and build scheduling
+     */
+    @Benchmark
+    public void runner() {
+        runner.run();
+    }
+}
@@ -0,0 +1,86 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Action;
+import hudson.model.BuildableItem;
+import hudson.model.Node;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Trigger with a stub modification check, used by the benchmarks.
+ */
+public class BenchmarkTrigger extends AbstractTrigger {
+
+    private final File log;
+
+    volatile boolean changed;
+
+    public BenchmarkTrigger() {
+        super("* * * * *");
+        try {
+            log = File.createTempFile("xtrigger", "bench");
+            log.deleteOnExit();
+        } catch (IOException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+
+    void setJob(BuildableItem item) {
+        this.job = item;
+    }
+
+    @Override
+    protected File getLogFile() {
+        return log;
+    }
+
+    @Override
+    protected Action[] getScheduledActions(Node node, XTriggerLog log) {
+        return new Action[] {};
+    }
+
+    @Override
+    protected boolean requiresWorkspaceForPolling() {
+        return false;
+    }
+
+    @Override
+    protected String getName() {
+        return "BenchmarkTrigger";
+    }
+
+    @Override
+    protected boolean checkIfModified(Node pollingNode, XTriggerLog log) {
+        return changed;
+    }
+
+    @Override
+    protected String getCause() {
+        return "Triggered by benchmark";
+    }
+
+    @Override
+    public Descriptor getDescriptor() {
+        return DESCRIPTOR;
+    }
+
+    private static final Descriptor DESCRIPTOR = new Descriptor();
+
+    public static final class Descriptor extends XTriggerDescriptor {
+
+        /**
+         * Drops the submitted polls so that only the dispatch is measured
+         */
+        @Override
+        void submit(Runnable poll, XTriggerPriority priority) {
+        }
+
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return "Benchmark trigger";
+        }
+    }
+}
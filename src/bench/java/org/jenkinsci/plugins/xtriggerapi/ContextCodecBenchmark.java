@@ -0,0 +1,126 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the context codec with the default Java serialization for a file listing context.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ContextCodecBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int entries;
+
+    private FilesContext context;
+
+    private byte[] serialized;
+
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = FilesContext.synthetic(entries);
+        serialized = serialize();
+        encoded = encode();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(context);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object deserialize() throws Exception {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return XTriggerContextOutput.encode(context, FilesContext.CODEC);
+    }
+
+    @Benchmark
+    public FilesContext decode() throws IOException {
+        return XTriggerContextInput.decode(encoded, FilesContext.CODEC);
+    }
+
+    /**
+     * Shape of the contexts built by the file and directory triggers
+     */
+    static final class FilesContext implements XTriggerContext {
+
+        static final XTriggerContextCodec<FilesContext> CODEC = new Codec();
+
+        private final Map<String, String> checksums;
+
+        private final List<String> owners;
+
+        private final long[] lastModified;
+
+        FilesContext(Map<String, String> checksums, List<String> owners, long[] lastModified) {
+            this.checksums = checksums;
+            this.owners = owners;
+            this.lastModified = lastModified;
+        }
+
+        static FilesContext synthetic(int entries) {
+            Map<String, String> checksums = new HashMap<>();
+            List<String> owners = new ArrayList<>();
+            long[] lastModified = new long[entries];
+            for (int i = 0; i < entries; i++) {
+                checksums.put("/var/lib/resources/dir-" + (i % 16) + "/file-" + i + ".xml", Long.toHexString(i * 0x9E3779B97F4A7C15L));
+                owners.add("user-" + (i % 8));
+                lastModified[i] = 1_700_000_000_000L + i * 1000L;
+            }
+            return new FilesContext(checksums, owners, lastModified);
+        }
+
+        private static final class Codec implements XTriggerContextCodec<FilesContext> {
+
+            @Override
+            public void write(FilesContext context, XTriggerContextOutput out) throws IOException {
+                out.writeStringMap(context.checksums);
+                out.writeStringList(context.owners);
+                out.writeLongArray(context.lastModified);
+            }
+
+            @Override
+            public FilesContext read(XTriggerContextInput in) throws IOException {
+                return new FilesContext(in.readStringMap(), in.readStringList(), in.readLongArray());
+            }
+        }
+    }
+}
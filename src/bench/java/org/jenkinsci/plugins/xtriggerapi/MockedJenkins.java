@@ -0,0 +1,97 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import hudson.ExtensionList;
+import hudson.FilePath;
+import hudson.model.BuildableItem;
+import hudson.model.Job;
+import hudson.model.Node;
+import hudson.model.Queue;
+import jenkins.model.Jenkins;
+import org.mockito.MockedStatic;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mocked Jenkins singleton for the benchmarks.
+ * <p>
+ * Static mocks are bound to the creating thread, so an instance must be
+ * created and closed by the benchmark thread itself.
+ */
+final class MockedJenkins implements AutoCloseable {
+
+    final Jenkins jenkins = mock(Jenkins.class);
+
+    /**
+     * Runs the tasks given to Queue.withLock, which calls the protected Queue._withLock
+     */
+    final Queue queue = mock(Queue.class, invocation -> {
+        if (invocation.getMethod().getName().equals("_withLock") && invocation.getArgument(0) instanceof Runnable) {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }
+        return RETURNS_DEFAULTS.answer(invocation);
+    });
+
+    private final MockedStatic<Jenkins> jenkinsStatic = mockStatic(Jenkins.class);
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    MockedJenkins() {
+        jenkinsStatic.when(Jenkins::get).thenReturn(jenkins);
+        jenkinsStatic.when(Jenkins::getInstanceOrNull).thenReturn(jenkins);
+        when(jenkins.getQueue()).thenReturn(queue);
+        // no extensions, as ExtensionList.lookup without a Jenkins instance
+        when(jenkins.getExtensionList(any(Class.class)))
+                .thenAnswer(invocation -> ExtensionList.create((Jenkins) null, (Class) invocation.getArgument(0)));
+        when(queue.schedule2(any(), anyInt(), anyList())).thenReturn(Queue.ScheduleResult.refused());
+    }
+
+    /**
+     * Registers agents with one executor and an existing root path
+     */
+    List<Node> addNodes(int count, File rootDir) {
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nodes.add(node("agent-" + i, new File(rootDir, "agent-" + i)));
+        }
+        when(jenkins.getNodes()).thenReturn(nodes);
+        return nodes;
+    }
+
+    static Node node(String name, File rootDir) {
+        Node node = mock(Node.class);
+        FilePath rootPath = new FilePath(rootDir);
+        when(node.getNodeName()).thenReturn(name);
+        when(node.getDisplayName()).thenReturn(name);
+        when(node.getRootPath()).thenReturn(rootPath);
+        when(node.getNumExecutors()).thenReturn(1);
+        return node;
+    }
+
+    /**
+     * Creates a buildable, non parameterized job
+     */
+    @SuppressWarnings("rawtypes")
+    static Job job(String name) {
+        Job job = mock(Job.class, withSettings().extraInterfaces(BuildableItem.class));
+        when(job.getName()).thenReturn(name);
+        when(job.getFullName()).thenReturn(name);
+        when(job.isBuildable()).thenReturn(true);
+        return job;
+    }
+
+    @Override
+    public void close() {
+        jenkinsStatic.close();
+    }
+}
@@ -0,0 +1,81 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hudson.model.BuildableItem;
+import hudson.model.Label;
+import hudson.model.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the node lookup of a label with many nodes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class NodesLabelBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int labelSize;
+
+    @Param({"false", "true"})
+    public boolean previouslyBuilt;
+
+    private MockedJenkins jenkins;
+
+    private BenchmarkTrigger trigger;
+
+    private BuildableItem buildable;
+
+    private Label label;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        jenkins = new MockedJenkins();
+        File rootDir = Files.createTempDirectory("xtrigger-bench").toFile();
+        rootDir.deleteOnExit();
+        List<Node> nodes = jenkins.addNodes(labelSize, rootDir);
+
+        label = mock(Label.class);
+        when(label.getNodes()).thenReturn(new LinkedHashSet<>(nodes));
+
+        buildable = (BuildableItem) MockedJenkins.job("bench-job");
+        if (previouslyBuilt) {
+            when(buildable.getLastBuiltOn()).thenReturn(nodes.get(nodes.size() / 2));
+        }
+        trigger = new BenchmarkTrigger();
+        trigger.setJob(buildable);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jenkins.close();
+    }
+
+    @Benchmark
+    public List<Node> getNodesLabel() {
+        return trigger.getNodesLabel(buildable, label);
+    }
+}
@@ -0,0 +1,97 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hudson.model.Action;
+import hudson.model.Run;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.NullWriter;
+import org.apache.commons.jelly.XMLOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the handling of the trigger log: copy into the cause action and HTML rendering.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TriggerLogBenchmark {
+
+    @Param({"1024", "102400", "1048576"})
+    public int logSize;
+
+    private MockedJenkins jenkins;
+
+    private BenchmarkTrigger trigger;
+
+    private XTriggerLog log;
+
+    private XTriggerCauseAction causeAction;
+
+    private XMLOutput output;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        jenkins = new MockedJenkins();
+        String content = syntheticLog(logSize);
+
+        trigger = new BenchmarkTrigger();
+        FileUtils.writeStringToFile(trigger.getLogFile(), content, StandardCharsets.UTF_8);
+        log = new XTriggerLog(null);
+
+        File buildDir = Files.createTempDirectory("xtrigger-bench").toFile();
+        buildDir.deleteOnExit();
+        Run<?, ?> build = mock(Run.class);
+        when(build.getRootDir()).thenReturn(buildDir);
+        causeAction = new XTriggerCauseAction(content);
+        causeAction.onLoad(build);
+        FileUtils.writeStringToFile(causeAction.getLogFile(), content, StandardCharsets.UTF_8);
+        output = XMLOutput.createXMLOutput(NullWriter.INSTANCE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jenkins.close();
+    }
+
+    @Benchmark
+    public Action[] getScheduledXTriggerActions() throws XTriggerException {
+        return trigger.getScheduledXTriggerActions(null, log);
+    }
+
+    @Benchmark
+    public void writeLogTo() throws Exception {
+        causeAction.writeLogTo(output);
+    }
+
+    private static String syntheticLog(int size) {
+        StringBuilder builder = new StringBuilder(size + 64);
+        int line = 0;
+        while (builder.length() < size) {
+            builder.append("Checking /var/lib/resources/file-").append(line++).append(".xml: no modification\n");
+        }
+        builder.setLength(size);
+        return builder.toString();
+    }
+}
@@ -4,6 +4,7 @@ import antlr.ANTLRException;
 import hudson.FilePath;
 import hudson.Util;
 import hudson.model.*;
+import hudson.model.Queue;
 import hudson.triggers.Trigger;
 import hudson.util.NullStream;
 import hudson.util.StreamTaskListener;
@@ -11,18 +12,25 @@ import hudson.util.StreamTaskListener;
 import org.apache.commons.io.FileUtils;
 import org.jenkinsci.lib.envinject.EnvInjectException;
 import org.jenkinsci.plugins.envinjectapi.util.EnvVarsResolver;
+import org.kohsuke.stapler.DataBoundSetter;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
-import java.text.DateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
 import java.util.*;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import jenkins.model.Jenkins;
 import jenkins.model.ParameterizedJobMixIn;
+import jenkins.util.SystemProperties;
 
 /**
  * @author Gregory Boissinot
@@ -31,11 +39,44 @@ public abstract class AbstractTrigger extends Trigger<BuildableItem> implements
 
     protected static final Logger LOGGER = Logger.getLogger(AbstractTrigger.class.getName());
 
+    /**
+     * Only one log out of this number of polls without changes is written to the trigger log file
+     */
+    private static final int LOG_SAMPLING_RATE = SystemProperties.getInteger(AbstractTrigger.class.getName() + ".logSamplingRate", 1);
+
+    private static final DateTimeFormatter DATE_FORMATTER =
+            DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM).withZone(ZoneId.systemDefault());
+
     private String triggerLabel;
 
     private transient boolean unblockConcurrentBuild;
     protected transient boolean offlineSlaveOnStartup = false;
 
+    /**
+     * Changes found while a build is waiting in this window are merged into it; 0 to disable
+     */
+    private int debounceSeconds;
+
+    /**
+     * Time the trigger started waiting for a polling node; 0 if it is not waiting
+     */
+    private transient volatile long waitingForNodeSince;
+
+    /**
+     * Priority of the polls in the descriptor queue; null for normal
+     */
+    private XTriggerPriority priority;
+
+    /**
+     * The last build scheduled with a debounce window; guarded by this
+     */
+    private transient PendingBuild pendingBuild;
+
+    /**
+     * Polls without changes since the last one written to the trigger log file; guarded by this
+     */
+    private transient int unchangedPolls;
+
     public AbstractTrigger(String cronTabSpec) throws ANTLRException {
         super(cronTabSpec);
         this.unblockConcurrentBuild = false;
@@ -63,6 +104,50 @@ public abstract class AbstractTrigger extends Trigger<BuildableItem> implements
         return triggerLabel;
     }
 
+    public int getDebounceSeconds() {
+        return debounceSeconds;
+    }
+
+    /**
+     * Sets the debounce window
+     * <p>
+     * The build of a detected change waits this quiet period in the queue; changes found
+     * in the meantime are merged into it instead of scheduling other builds.
+     *
+     * @param debounceSeconds the window in seconds; 0 to schedule a build for each change
+     */
+    @DataBoundSetter
+    public void setDebounceSeconds(int debounceSeconds) {
+        this.debounceSeconds = Math.max(0, debounceSeconds);
+    }
+
+    public XTriggerPriority getPriority() {
+        return priority != null ? priority : XTriggerPriority.NORMAL;
+    }
+
+    /**
+     * Sets the priority of the polls of this trigger in the queue shared by all the triggers of the same type
+     */
+    @DataBoundSetter
+    public void setPriority(XTriggerPriority priority) {
+        this.priority = priority == XTriggerPriority.NORMAL ? null : priority;
+    }
+
+    /**
+     * Gets a fingerprint of the trigger configuration, identical for the triggers polling the same target the same way
+     * <p>
+     * When provided, the contexts captured by an {@link AbstractTriggerByFullContext} are shared for a short time
+     * through the {@link XTriggerContextCache} with the other jobs having the same fingerprint,
+     * instead of being captured again for each job. The shared contexts must then not be modified.
+     * The fingerprint must cover every setting having an effect on the captured context, e.g. the resolved target,
+     * but neither the job nor the schedule.
+     *
+     * @return the fingerprint; null to capture the context for each job
+     */
+    protected String getConfigurationFingerprint() {
+        return null;
+    }
+
     /**
      * Gets the triggering log file
      *
@@ -85,16 +170,17 @@ public abstract class AbstractTrigger extends Trigger<BuildableItem> implements
         Node pollingNode = getPollingNode(log);
         if (pollingNode == null) {
             log.info("Can't find any complete active node.");
-            log.info("Checking again in next polling schedule.");
-            log.info("Waiting for next schedule.");
+            log.info("Waiting for a node to come online.");
             offlineSlaveOnStartup = true;
+            waitForNode();
             return;
         }
 
         if (pollingNode.getRootPath() == null) {
             log.info("The running slave might be offline at the moment.");
-            log.info("Waiting for next schedule.");
+            log.info("Waiting for a node to come online.");
             offlineSlaveOnStartup = true;
+            waitForNode();
             return;
         }
 
@@ -111,6 +197,84 @@ public abstract class AbstractTrigger extends Trigger<BuildableItem> implements
     protected void start(Node pollingNode, BuildableItem project, boolean newInstance, XTriggerLog log) throws XTriggerException {
     }
 
+    @Override
+    public void stop() {
+        super.stop();
+        waitingForNodeSince = 0;
+        XTriggerNodeListener.unpark(this);
+    }
+
+    /**
+     * Skips the next polls until a node this trigger can poll on comes online
+     */
+    private void waitForNode() {
+        waitingForNodeSince = System.currentTimeMillis();
+        XTriggerNodeListener.park(this);
+    }
+
+    /**
+     * @return true if the trigger is waiting for a node and the fallback delay is not over
+     */
+    private boolean isWaitingForNode() {
+        long since = waitingForNodeSince;
+        if (since == 0) {
+            return false;
+        }
+        if (System.currentTimeMillis() - since < XTriggerNodeListener.FALLBACK_MILLIS) {
+            return true;
+        }
+        waitingForNodeSince = 0;
+        XTriggerNodeListener.unpark(this);
+        return false;
+    }
+
+    /**
+     * Polls if this trigger is waiting for a node and can poll on the given one
+     *
+     * @param node a node which just came online
+     * @return true if the trigger stopped waiting
+     */
+    boolean wakeUpOn(Node node) {
+        if (waitingForNodeSince == 0) {
+            return true;
+        }
+        if (!isPollingNodeCandidate(node)) {
+            return false;
+        }
+        waitingForNodeSince = 0;
+        poll();
+        return true;
+    }
+
+    /**
+     * Tells, without scanning the other nodes, if the poll could run on the node
+     */
+    private boolean isPollingNodeCandidate(Node node) {
+        if (node.getNumExecutors() == 0) {
+            return false;
+        }
+        if (triggerLabel != null) {
+            if ("master".equalsIgnoreCase(triggerLabel)) {
+                return node instanceof Jenkins;
+            }
+            Label targetLabel = Jenkins.get().getLabel(triggerLabel);
+            if (targetLabel != null) {
+                return targetLabel.contains(node);
+            }
+        }
+        if (job == null) {
+            return true;
+        }
+        if (requiresWorkspaceForPolling()) {
+            Node lastBuiltOn = job.getLastBuiltOn();
+            if (lastBuiltOn != null) {
+                return lastBuiltOn.getNodeName().equals(node.getNodeName());
+            }
+        }
+        Label assignedLabel = job.getAssignedLabel();
+        return assignedLabel == null || assignedLabel.contains(node);
+    }
+
     @Deprecated // as of 0.34.
     protected String resolveEnvVars(String value, AbstractProject<?, ?> project, Node node) throws XTriggerException {
         Map<String, String> envVars;
@@ -124,31 +288,49 @@ public abstract class AbstractTrigger extends Trigger<BuildableItem> implements
 
     @Override
     public void run() {
-        Job<?,?> project ;
-        try {
-        	// TODO: This is to allow things to continue working
-        	//       when multibranch projects are involved.  It needs to be fixed to
-        	//       work properly for them.
-            project = (Job<?, ?>)job ;
-        } catch ( Exception e ) {
-        	return ;
+        if (XTriggerLifecycle.isResuming(job)) {
+            // the poll deferred by the last shutdown is about to run
+            return;
         }
+        poll();
+    }
+
+    /**
+     * Requests a poll on the descriptor executor
+     *
+     * @return a future completed when the poll is over, with true if changes were found and a build was scheduled;
+     * completed immediately with false if the poll is skipped
+     */
+    public CompletableFuture<Boolean> poll() {
+        if (!(job instanceof Job) && !(job instanceof ItemGroup)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        // null for a folder: the poll is shared by its jobs, see getAffectedJobs
+        Job<?, ?> project = job instanceof Job ? (Job<?, ?>) job : null;
         XTriggerDescriptor descriptor = getDescriptor();
-        ExecutorService executorService = descriptor.getExecutor();
         XTriggerLog log = null;
         try {
-            StreamTaskListener listener = new StreamTaskListener(getLogFile());
-            log = new XTriggerLog(listener);
-            if (Jenkins.get().isQuietingDown()) {
-                log.info("Jenkins is quieting down.");
-            } else if (!project.isBuildable()) {
-                log.info("The job is not buildable. Activate it to poll again.");
-            } else if (!unblockConcurrentBuild && project.isBuilding()) {
-                log.info("The job is building. Waiting for next poll.");
+            String skipReason = null;
+            if (isWaitingForNode()) {
+                // keep the trigger log of the last poll; a node coming online triggers the next one
+                firePollSkipped(0);
+                return CompletableFuture.completedFuture(false);
+            } else if (Jenkins.get().isQuietingDown()) {
+                skipReason = "Jenkins is quieting down. The poll will run after the restart.";
+                XTriggerLifecycle.deferPoll(job);
+            } else if (project != null && !project.isBuildable()) {
+                skipReason = "The job is not buildable. Activate it to poll again.";
+            } else if (project != null && !unblockConcurrentBuild && project.isBuilding()) {
+                skipReason = "The job is building. Waiting for next poll.";
             } else {
                 Runner runner = new Runner(getName());
-                executorService.execute(runner);
+                descriptor.getStatistics().pollQueued();
+                descriptor.submit(runner, getPriority());
+                return runner.getCompletion();
             }
+            firePollSkipped(0);
+            log = new XTriggerLog(new StreamTaskListener(getLogFile()));
+            log.info(skipReason);
         } catch (Throwable t) {
             LOGGER.log(Level.SEVERE, "Severe error during the trigger execution " + t.getMessage());
             t.printStackTrace();
@@ -157,6 +339,19 @@ public abstract class AbstractTrigger extends Trigger<BuildableItem> implements
                 log.closeQuietly();
             }
         }
+        return CompletableFuture.completedFuture(false);
+    }
+
+    /**
+     * Publishes a poll skipped before its check
+     */
+    private void firePollSkipped(long queueWaitMillis) {
+        if (!XTriggerPollListener.isListened()) {
+            return;
+        }
+        XTriggerPollListener.fireOnPoll(new XTriggerPollEvent(System.currentTimeMillis(), job.getFullName(), getName(),
+                getDescriptor().getId(), null, queueWaitMillis, 0, -1, XTriggerPollEvent.Outcome.SKIPPED, null,
+                new XTriggerPollingCost()));
     }
 
     protected abstract String getName();
@@ -168,81 +363,248 @@ public abstract class AbstractTrigger extends Trigger<BuildableItem> implements
     /**
      * Asynchronous task
      */
-    private class Runner implements Runnable {
+    class Runner implements Runnable {
 
         private String triggerName;
 
+        private final CompletableFuture<Boolean> completion = new CompletableFuture<>();
+
+        private final long queuedAt = System.currentTimeMillis();
+
         public Runner(String triggerName) {
             this.triggerName = triggerName;
         }
 
+        /**
+         * @return the future completed at the end of this poll
+         */
+        CompletableFuture<Boolean> getCompletion() {
+            return completion;
+        }
+
+        /**
+         * Gives up the poll before it starts, to run it after the next startup
+         */
+        void cancel() {
+            getDescriptor().getStatistics().pollCancelled();
+            XTriggerLifecycle.deferPoll(job);
+            firePollSkipped(System.currentTimeMillis() - queuedAt);
+            completion.complete(false);
+        }
+
         @Override
         public void run() {
-            XTriggerLog log = null;
+            Jenkins jenkins = Jenkins.getInstanceOrNull();
+            if (jenkins == null || jenkins.isQuietingDown()) {
+                cancel();
+                return;
+            }
+            XTriggerLifecycle.clearDeferredPoll(job);
+            getDescriptor().getStatistics().pollStarted();
+            Poll poll = new Poll(XTriggerPollingLog.acquire());
+            long cpuStart = XTriggerPollingCost.threadCpuTime();
+            CompletableFuture<Boolean> result;
             try {
+                result = startPoll(poll);
+            } catch (Throwable e) {
+                result = CompletableFuture.failedFuture(e);
+            }
+            poll.cost.addCpuSince(cpuStart);
+            if (result.isDone()) {
+                endPoll(poll, result);
+            } else {
+                // the check goes on without this thread; it must not reuse the log meanwhile
+                poll.pollingLog.detach();
+                CompletableFuture<Boolean> pending = result;
+                pending.whenComplete((changed, error) -> endPoll(poll, pending));
+            }
+        }
+
+        /**
+         * Resolves the polling node and starts the check
+         *
+         * @return the future completed once the check is done and the build scheduled, if any
+         */
+        private CompletableFuture<Boolean> startPoll(Poll poll) {
+            XTriggerLog log = poll.pollingLog.getLog();
+            poll.start = System.currentTimeMillis();
+            log.info("Polling started on " + DATE_FORMATTER.format(Instant.ofEpochMilli(poll.start)));
+            if( job != null ) {
+            	log.info("Polling for the job " + job.getName());
+            }
 
-                StreamTaskListener listener = new StreamTaskListener(getLogFile());
-                log = new XTriggerLog(listener);
+            if (requirePollingNode()) {
 
-                long start = System.currentTimeMillis();
-                log.info("Polling started on " + DateFormat.getDateTimeInstance().format(new Date(start)));
-                if( job != null ) {
-                	log.info("Polling for the job " + job.getName());
+                List<Node> pollingNodes = getPollingNodesWithExecutors(log);
+                if (pollingNodes.isEmpty()) {
+                    log.info("Can't find any complete active node for the polling action.");
+                    log.info("Maybe slaves are not yet active at this time or the number of executor of the master is 0.");
+                    log.info("Checking again when a node comes online.");
+                    waitForNode();
+                    return CompletableFuture.completedFuture(false);
                 }
-                	
-                boolean changed;
-
-                if (requirePollingNode()) {
 
-                    Node pollingNode = getPollingNode(log);
-                    if (pollingNode == null) {
-                        log.info("Can't find any complete active node for the polling action.");
-                        log.info("Maybe slaves are not yet active at this time or the number of executor of the master is 0.");
-                        log.info("Checking again in next polling schedule.");
-                        return;
+                CompletableFuture<Node> slot = XTriggerNodeGovernor.get().acquire(pollingNodes, log);
+                if (slot.isDone()) {
+                    return pollOn(poll, slot.join());
+                }
+                // parked until a slot is freed: resume on a polling thread rather than on the thread freeing the slot
+                return slot.thenComposeAsync(pollingNode -> {
+                    long cpuStart = XTriggerPollingCost.threadCpuTime();
+                    try {
+                        return pollOn(poll, pollingNode);
+                    } finally {
+                        poll.cost.addCpuSince(cpuStart);
                     }
+                }, getDescriptor().getExecutor());
+            }
 
-                    if (pollingNode.getRootPath() == null) {
-                        log.info("The running slave might be offline at the moment.");
-                        log.info("Waiting for next schedule.");
-                        return;
-                    }
+            long checkStart = System.currentTimeMillis();
+            return whenChecked(poll, checkIfModifiedAsync(log).whenComplete((changed, error) ->
+                    poll.checkMillis = System.currentTimeMillis() - checkStart));
+        }
 
-                    displayPollingNode(pollingNode, log);
-                    changed = checkIfModified(pollingNode, log);
+        /**
+         * Starts the check on the node holding a polling slot
+         *
+         * @param pollingNode null if no slot was freed in time
+         */
+        private CompletableFuture<Boolean> pollOn(Poll poll, Node pollingNode) {
+            XTriggerLog log = poll.pollingLog.getLog();
+            if (pollingNode == null) {
+                log.info("The eligible nodes are busy with other polls.");
+                log.info("Waiting for next schedule.");
+                return CompletableFuture.completedFuture(false);
+            }
 
-                } else {
-                    changed = checkIfModified(log);
+            XTriggerNodeGovernor governor = XTriggerNodeGovernor.get();
+            CompletableFuture<Boolean> check;
+            try {
+                if (pollingNode.getRootPath() == null) {
+                    log.info("The running slave might be offline at the moment.");
+                    log.info("Waiting for next schedule.");
+                    governor.release(pollingNode);
+                    return CompletableFuture.completedFuture(false);
                 }
 
+                displayPollingNode(pollingNode, log);
+                poll.nodeName = getPollingNodeName(pollingNode);
+                long checkStart = System.currentTimeMillis();
+                poll.cost.beginCheck(pollingNode);
+                try {
+                    check = checkIfModifiedAsync(pollingNode, log).whenComplete((changed, error) -> {
+                        poll.checkMillis = System.currentTimeMillis() - checkStart;
+                        poll.cost.endCheck();
+                        governor.release(pollingNode);
+                    });
+                } finally {
+                    poll.cost.detachCheck();
+                }
+            } catch (RuntimeException e) {
+                poll.cost.endCheck();
+                governor.release(pollingNode);
+                throw e;
+            }
+            return whenChecked(poll, check);
+        }
 
-                log.info("\nPolling complete. Took " + Util.getTimeSpanString(System.currentTimeMillis() - start) + ".");
+        /**
+         * @return the future completed once the check is done and the build scheduled, if any
+         */
+        private CompletableFuture<Boolean> whenChecked(Poll poll, CompletableFuture<Boolean> check) {
+            if (check.isDone()) {
+                return check.thenApply(changed -> onChecked(poll, changed));
+            }
+            // back from a remote check: schedule on a polling thread rather than on the thread completing the check
+            return check.thenApplyAsync(changed -> {
+                long cpuStart = XTriggerPollingCost.threadCpuTime();
+                try {
+                    return onChecked(poll, changed);
+                } finally {
+                    poll.cost.addCpuSince(cpuStart);
+                }
+            }, getDescriptor().getExecutor());
+        }
 
+        private boolean onChecked(Poll poll, boolean changed) {
+            XTriggerLog log = poll.pollingLog.getLog();
+            log.info("\nPolling complete. Took " + Util.getTimeSpanString(System.currentTimeMillis() - poll.start) + ".");
+            try {
                 if (changed) {
-                    log.info("Changes found. Scheduling a build.");
-
-                    //TODO: Check whether the schedule() operation returns non-null future
-                    List<Action> actions = new ArrayList<>(Arrays.asList(getScheduledXTriggerActions(null, log)));
-                    actions.add(new CauseAction(getBuildCause()));
-                   
-                    if( job instanceof ParameterizedJobMixIn.ParameterizedJob ) {
-                    	Action[] actionsArray = Arrays.copyOf( actions.toArray() , actions.size() , Action[].class );
-                    	for (Job<?, ?> pjob : job.getAllJobs()) {
-                    		ParameterizedJobMixIn.scheduleBuild2(pjob , 0 , actionsArray ) ;
-                    	}
-                    } else {
-                    	hudson.model.Queue.getInstance().schedule2(job, 0, actions);
+                    if (!mergeIntoPendingBuild(poll.pollingLog)) {
+                        log.info("Changes found. Scheduling a build.");
+
+                        poll.cost.addLogBytes(poll.pollingLog.writeTo(getLogFile()));
+                        List<Action> actions = new ArrayList<>(Arrays.asList(getScheduledXTriggerActions(null, log)));
+                        XTriggerCause cause = getBuildCause();
+                        actions.add(new CauseAction(cause));
+                        List<Long> itemIds = scheduleBuilds(actions, log);
+                        if (debounceSeconds > 0 && !itemIds.isEmpty()) {
+                            synchronized (AbstractTrigger.this) {
+                                pendingBuild = new PendingBuild(itemIds, cause);
+                            }
+                        }
                     }
                 } else {
                     log.info("No changes.");
+                    poll.logFileRequired = isUnchangedPollLogged();
                 }
-            } catch (Throwable e) {
-                reportError(log, e);
-            } finally {
-                if (log != null) {
-                    log.closeQuietly();
+            } catch (IOException | XTriggerException e) {
+                throw new CompletionException(e);
+            }
+            return changed;
+        }
+
+        /**
+         * Writes the log if needed, records the poll and completes the future of the poll
+         */
+        private void endPoll(Poll poll, CompletableFuture<Boolean> result) {
+            long cpuStart = XTriggerPollingCost.threadCpuTime();
+            boolean changed = false;
+            Throwable error = null;
+            try {
+                changed = result.join();
+            } catch (CompletionException | CancellationException e) {
+                error = e.getCause() != null ? e.getCause() : e;
+                reportError(poll.pollingLog.getLog(), error);
+            }
+            if (poll.logFileRequired || error != null) {
+                try {
+                    poll.cost.addLogBytes(poll.pollingLog.writeTo(getLogFile()));
+                } catch (IOException ioe) {
+                    LOGGER.log(Level.WARNING, "Can't write the trigger log", ioe);
                 }
             }
+            poll.pollingLog.release();
+            poll.cost.addCpuSince(cpuStart);
+            String jobName = job != null ? job.getFullName() : null;
+            getDescriptor().getStatistics().pollCompleted(jobName, poll.nodeName, poll.checkMillis, error != null, poll.cost);
+            firePollEvent(poll, jobName, changed, error);
+            if (error != null) {
+                completion.completeExceptionally(error);
+            } else {
+                completion.complete(changed);
+            }
+        }
+
+        private void firePollEvent(Poll poll, String jobName, boolean changed, Throwable error) {
+            if (!XTriggerPollListener.isListened()) {
+                return;
+            }
+            XTriggerPollEvent.Outcome outcome;
+            if (error != null) {
+                outcome = XTriggerPollEvent.Outcome.ERROR;
+            } else if (changed) {
+                outcome = XTriggerPollEvent.Outcome.CHANGES;
+            } else if (poll.checkMillis < 0) {
+                outcome = XTriggerPollEvent.Outcome.SKIPPED;
+            } else {
+                outcome = XTriggerPollEvent.Outcome.NO_CHANGES;
+            }
+            long end = System.currentTimeMillis();
+            XTriggerPollListener.fireOnPoll(new XTriggerPollEvent(end, jobName, triggerName, getDescriptor().getId(), poll.nodeName,
+                    Math.max(0, poll.start - queuedAt), end - poll.start, poll.checkMillis, outcome,
+                    error != null ? error.getClass().getName() : null, poll.cost));
         }
 
         @Override
@@ -264,6 +626,210 @@ public abstract class AbstractTrigger extends Trigger<BuildableItem> implements
         }
     }
 
+    /**
+     * Merges the changes found by the current poll into the build waiting in its debounce window, if any
+     *
+     * @return true if the changes were merged, false if a new build must be scheduled
+     */
+    private boolean mergeIntoPendingBuild(XTriggerPollingLog pollingLog) {
+        synchronized (this) {
+            if (pendingBuild == null || debounceSeconds <= 0) {
+                pendingBuild = null;
+                return false;
+            }
+            PendingBuild pending = pendingBuild;
+            boolean[] merged = new boolean[1];
+            // the items can't leave their quiet period between the check and the merge while the queue is locked
+            Queue.withLock(() -> {
+                merged[0] = pending.mergeIfWaiting(pollingLog);
+            });
+            if (!merged[0]) {
+                pendingBuild = null;
+            }
+            return merged[0];
+        }
+    }
+
+    /**
+     * Tells if the log of a poll without changes must be written to the trigger log file, according to the sampling rate
+     */
+    private synchronized boolean isUnchangedPollLogged() {
+        unchangedPolls = (unchangedPolls + 1) % Math.max(1, LOG_SAMPLING_RATE);
+        return unchangedPolls == 0;
+    }
+
+    /**
+     * Schedules the builds of the job, of all its sub jobs for a parameterized job,
+     * or of the affected jobs for a folder, under a single acquisition of the queue lock
+     *
+     * @param actions the actions shared by all the scheduled items
+     * @return the ids of the created queue items
+     */
+    private List<Long> scheduleBuilds(List<Action> actions, XTriggerLog log) {
+        Map<String, Queue.ScheduleResult> results = new LinkedHashMap<>();
+        Queue queue = Queue.getInstance();
+        int quietPeriod = debounceSeconds;
+        Collection<? extends Job> jobs;
+        if (job instanceof ItemGroup) {
+            jobs = getAffectedJobs(log);
+        } else if (job instanceof ParameterizedJobMixIn.ParameterizedJob) {
+            jobs = job.getAllJobs();
+        } else {
+            jobs = null;
+        }
+        Queue.withLock(() -> {
+            if (jobs != null) {
+                for (Job<?, ?> pjob : jobs) {
+                    if (pjob instanceof ParameterizedJobMixIn.ParameterizedJob && pjob instanceof Queue.Task && pjob.isBuildable()) {
+                        List<Action> jobActions = results.isEmpty() ? actions : copyCauseActions(actions);
+                        results.put(pjob.getFullDisplayName(), queue.schedule2((Queue.Task) pjob, quietPeriod, withDefaultParameters(pjob, jobActions)));
+                    }
+                }
+            } else {
+                results.put(job.getFullDisplayName(), queue.schedule2(job, quietPeriod, actions));
+            }
+        });
+
+        List<Long> createdItemIds = new ArrayList<>();
+        for (Map.Entry<String, Queue.ScheduleResult> entry : results.entrySet()) {
+            Queue.ScheduleResult result = entry.getValue();
+            Queue.Item item = result.getItem();
+            if (result.isCreated() && item != null) {
+                createdItemIds.add(item.getId());
+                log.info(String.format("Scheduled a build of %s (queue item #%d).", entry.getKey(), item.getId()));
+            } else if (!result.isRefused() && item != null) {
+                log.info(String.format("A build of %s is already queued (queue item #%d). Merged into it.", entry.getKey(), item.getId()));
+            } else {
+                log.info(String.format("The build of %s was refused by the queue.", entry.getKey()));
+            }
+        }
+        return createdItemIds;
+    }
+
+    /**
+     * Gets the jobs to build when changes are found by a trigger defined on a folder, such as a multibranch project
+     * <p>
+     * The folder is polled once for all its jobs. Building from a folder is opt-in: by default no job is built.
+     * A subclass supporting folders overrides this method to return the jobs concerned by the changes,
+     * or all the buildable jobs of the folder with {@link #getBuildableJobs(ItemGroup)}.
+     *
+     * @return the jobs to build
+     */
+    protected List<Job<?, ?>> getAffectedJobs(XTriggerLog log) {
+        log.info("The trigger doesn't select the jobs to build in a folder. No build is scheduled.");
+        return Collections.emptyList();
+    }
+
+    /**
+     * Gets the buildable jobs of the folder and of its sub folders
+     */
+    protected static List<Job<?, ?>> getBuildableJobs(ItemGroup<?> folder) {
+        List<Job<?, ?>> result = new ArrayList<>();
+        for (Job<?, ?> child : Items.getAllItems(folder, Job.class)) {
+            if (child.isBuildable()) {
+                result.add(child);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gives each scheduled build its own log action, as the action keeps a reference to its build
+     */
+    private static List<Action> copyCauseActions(List<Action> actions) {
+        List<Action> result = new ArrayList<>(actions.size());
+        for (Action action : actions) {
+            result.add(action instanceof XTriggerCauseAction ? ((XTriggerCauseAction) action).copy() : action);
+        }
+        return result;
+    }
+
+    /**
+     * Adds the default parameter values as ParameterizedJobMixIn.scheduleBuild2 does
+     */
+    private List<Action> withDefaultParameters(Job<?, ?> pjob, List<Action> actions) {
+        ParametersDefinitionProperty property = pjob.getProperty(ParametersDefinitionProperty.class);
+        if (property == null || !Util.filter(actions, ParametersAction.class).isEmpty()) {
+            return actions;
+        }
+        List<ParameterValue> values = new ArrayList<>();
+        for (ParameterDefinition definition : property.getParameterDefinitions()) {
+            ParameterValue value = definition.getDefaultParameterValue();
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        List<Action> result = new ArrayList<>(actions);
+        result.add(new ParametersAction(values));
+        return result;
+    }
+
+    /**
+     * State of one poll, shared by the steps of the poll
+     */
+    private static final class Poll {
+
+        private final XTriggerPollingLog pollingLog;
+
+        private final XTriggerPollingCost cost = new XTriggerPollingCost();
+
+        private long start;
+
+        private String nodeName;
+
+        private long checkMillis = -1;
+
+        private boolean logFileRequired = true;
+
+        Poll(XTriggerPollingLog pollingLog) {
+            this.pollingLog = pollingLog;
+        }
+    }
+
+    /**
+     * A build scheduled with a debounce window, not started yet
+     */
+    private static final class PendingBuild {
+
+        private final List<Long> itemIds;
+
+        private final XTriggerCause cause;
+
+        PendingBuild(List<Long> itemIds, XTriggerCause cause) {
+            this.itemIds = itemIds;
+            this.cause = cause;
+        }
+
+        /**
+         * Merges the changes of a poll into the scheduled items still in their quiet period.
+         * Must be called with the queue lock held.
+         *
+         * @return true if the changes were merged, false if none of the items is waiting any more
+         */
+        boolean mergeIfWaiting(XTriggerPollingLog pollingLog) {
+            Queue queue = Queue.getInstance();
+            List<Queue.WaitingItem> waitingItems = new ArrayList<>();
+            for (Long itemId : itemIds) {
+                Queue.Item item = queue.getItem(itemId);
+                if (item instanceof Queue.WaitingItem) {
+                    waitingItems.add((Queue.WaitingItem) item);
+                }
+            }
+            if (waitingItems.isEmpty()) {
+                return false;
+            }
+            pollingLog.getLog().info("Changes found. A build is already waiting in the debounce window; merging the changes into it.");
+            String logContent = pollingLog.getContent();
+            cause.addChange();
+            for (Queue.WaitingItem item : waitingItems) {
+                for (XTriggerCauseAction causeAction : item.getActions(XTriggerCauseAction.class)) {
+                    causeAction.appendLogMessage(logContent);
+                }
+            }
+            return true;
+        }
+    }
+
     private void reportError(XTriggerLog log, Throwable e) {
         log.error("Polling error...");
         String message = e.getMessage();
@@ -283,7 +849,7 @@ public abstract class AbstractTrigger extends Trigger<BuildableItem> implements
         Action[] newActions = new Action[nbNewAction];
         System.arraycopy(actions, 0, newActions, 0, actions.length);
         try {
-            newActions[newActions.length - 1] = new XTriggerCauseAction(FileUtils.readFileToString(getLogFile()));
+            newActions[newActions.length - 1] = new XTriggerCauseAction(getName(), FileUtils.readFileToString(getLogFile()));
         } catch (IOException ioe) {
             throw new XTriggerException(ioe);
         }
@@ -299,6 +865,23 @@ public abstract class AbstractTrigger extends Trigger<BuildableItem> implements
      */
     protected abstract boolean checkIfModified(Node pollingNode, XTriggerLog log) throws XTriggerException;
 
+    /**
+     * Checks if there are modifications in the environment between last poll, without blocking the polling thread
+     * <p>
+     * Subclasses waiting on I/O (remote calls, HTTP requests) can override it and complete the future
+     * when the answer comes; the polling thread then moves on to the next poll meanwhile.
+     * The default implementation runs {@link #checkIfModified(Node, XTriggerLog)} on the polling thread.
+     *
+     * @return the future completed with true if there are modifications
+     */
+    protected CompletableFuture<Boolean> checkIfModifiedAsync(Node pollingNode, XTriggerLog log) {
+        try {
+            return CompletableFuture.completedFuture(checkIfModified(pollingNode, log));
+        } catch (XTriggerException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     protected boolean requirePollingNode() {
         return true;
     }
@@ -307,6 +890,21 @@ public abstract class AbstractTrigger extends Trigger<BuildableItem> implements
         return true;
     }
 
+    /**
+     * Alternative to {@link #checkIfModifiedAsync(Node, XTriggerLog)} when no polling node is required
+     * <p>
+     * The default implementation runs {@link #checkIfModified(XTriggerLog)} on the polling thread.
+     *
+     * @return the future completed with true if there are modifications
+     */
+    protected CompletableFuture<Boolean> checkIfModifiedAsync(XTriggerLog log) {
+        try {
+            return CompletableFuture.completedFuture(checkIfModified(log));
+        } catch (XTriggerException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * Gets the trigger cause
      *
@@ -351,6 +949,14 @@ public abstract class AbstractTrigger extends Trigger<BuildableItem> implements
         }
     }
 
+    private String getPollingNodeName(Node node) {
+        String nodeName = node.getNodeName();
+        if (nodeName == null || nodeName.trim().length() == 0) {
+            return "master";
+        }
+        return nodeName;
+    }
+
     private List<Node> getPollingNodesWithExecutors(XTriggerLog log) {
         List<Node> result = new ArrayList<>();
         List<Node> nodes = getPollingNodeList(log);
@@ -488,7 +1094,7 @@ public abstract class AbstractTrigger extends Trigger<BuildableItem> implements
         }
     }
 
-    private List<Node> getNodesLabel(BuildableItem buildable, Label label) {
+    List<Node> getNodesLabel(BuildableItem buildable, Label label) {
         List<Node> result = new ArrayList<>();
         List<Node> remainingNodes = new ArrayList<>();
 
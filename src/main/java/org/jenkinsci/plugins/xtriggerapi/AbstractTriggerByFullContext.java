@@ -1,8 +1,17 @@
 package org.jenkinsci.plugins.xtriggerapi;
 
 import antlr.ANTLRException;
+import hudson.FilePath;
+import hudson.Util;
 import hudson.model.BuildableItem;
 import hudson.model.Node;
+import hudson.remoting.VirtualChannel;
+import jenkins.model.Jenkins;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
 
 
 /**
@@ -10,8 +19,43 @@ import hudson.model.Node;
  */
 public abstract class AbstractTriggerByFullContext<C extends XTriggerContext> extends AbstractTrigger {
 
+    /**
+     * Tells, per trigger class, if {@link #getContextAsync(Node, XTriggerLog)} is overridden
+     */
+    private static final ClassValue<Boolean> ASYNC_ON_NODE = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return Util.isOverridden(AbstractTriggerByFullContext.class, type, "getContextAsync", Node.class, XTriggerLog.class);
+        }
+    };
+
+    /**
+     * Tells, per trigger class, if {@link #getContextAsync(XTriggerLog)} is overridden
+     */
+    private static final ClassValue<Boolean> ASYNC_WITHOUT_NODE = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return Util.isOverridden(AbstractTriggerByFullContext.class, type, "getContextAsync", XTriggerLog.class);
+        }
+    };
+
     private transient C context;
 
+    /**
+     * Holds the context instead of the field when the context store is enabled
+     */
+    private transient XTriggerContextStore.Slot<C> contextSlot;
+
+    /**
+     * Fingerprint of the context kept on the polling node, when the comparison runs there
+     */
+    private transient String contextFingerprint;
+
+    /**
+     * Name of the node keeping the context in memory, when the comparison runs there
+     */
+    private transient String contextNodeName;
+
     private final Object lock = new Object();
 
     /**
@@ -43,10 +87,31 @@ public abstract class AbstractTriggerByFullContext<C extends XTriggerContext> ex
     @Override
     protected void start(Node pollingNode, BuildableItem project, boolean newInstance, XTriggerLog log) throws XTriggerException {
         if (isContextOnStartupFetched()) {
-            context = getContext(pollingNode, log);
+            XTriggerContextComparator<C> comparator = getContextComparator();
+            if (comparator != null) {
+                synchronized (lock) {
+                    contextFingerprint = checkOnNode(pollingNode, comparator, log).getFingerprint();
+                }
+            } else {
+                setNewContext(captureContext(pollingNode, log));
+            }
         }
     }
 
+    /**
+     * Gets the comparator used to capture and compare the contexts on the polling node
+     * <p>
+     * When provided, the contexts never travel back to the controller: the previous context stays
+     * in the polling node memory and the controller only keeps its fingerprint.
+     * {@link #getContext(Node, XTriggerLog)} and {@link #checkIfModified(XTriggerContext, XTriggerContext, XTriggerLog)}
+     * are then not called for the polls on a node.
+     *
+     * @return the comparator; null to capture the context with getContext and compare it on the controller
+     */
+    protected XTriggerContextComparator<C> getContextComparator() {
+        return null;
+    }
+
     public abstract boolean isContextOnStartupFetched();
 
     @Override
@@ -57,27 +122,146 @@ public abstract class AbstractTriggerByFullContext<C extends XTriggerContext> ex
 //            lock = new Object();
 //        }
         
+        XTriggerContextComparator<C> comparator = getContextComparator();
+        if (comparator != null) {
+            return checkIfModifiedOnNode(pollingNode, comparator, log);
+        }
+
         synchronized (lock) {
+            return compareWithCurrentContext(captureContext(pollingNode, log), true, log);
+        }
+    }
 
-            C newContext = getContext(pollingNode, log);
+    /**
+     * Captures the context with {@link #getContextAsync(Node, XTriggerLog)} when it is overridden,
+     * otherwise runs the synchronous check on the polling thread
+     */
+    @Override
+    protected CompletableFuture<Boolean> checkIfModifiedAsync(Node pollingNode, XTriggerLog log) {
+        if (getContextComparator() != null
+                || !ASYNC_ON_NODE.get(getClass())) {
+            return super.checkIfModifiedAsync(pollingNode, log);
+        }
+        return compareWhenCaptured(captureContextAsync(pollingNode, log), true, log);
+    }
+
+    @Override
+    protected CompletableFuture<Boolean> checkIfModifiedAsync(XTriggerLog log) {
+        if (!ASYNC_WITHOUT_NODE.get(getClass())) {
+            return super.checkIfModifiedAsync(log);
+        }
+        return compareWhenCaptured(captureContextAsync(null, log), false, log);
+    }
+
+    private CompletableFuture<Boolean> compareWhenCaptured(CompletableFuture<C> capture, boolean onNode, XTriggerLog log) {
+        if (capture.isDone()) {
+            return capture.thenApply(newContext -> compareAsync(newContext, onNode, log));
+        }
+        // back from a remote capture: compare on a polling thread rather than on the thread completing the capture
+        return capture.thenApplyAsync(newContext -> compareAsync(newContext, onNode, log), getDescriptor().getExecutor());
+    }
+
+    private boolean compareAsync(C newContext, boolean onNode, XTriggerLog log) {
+        synchronized (lock) {
+            try {
+                return compareWithCurrentContext(newContext, onNode, log);
+            } catch (XTriggerException xe) {
+                throw new CompletionException(xe);
+            }
+        }
+    }
+
+    /**
+     * Compares the new context with the current one and keeps the new one when there is nothing to compare with.
+     * Must be called with the lock held.
+     */
+    private boolean compareWithCurrentContext(C newContext, boolean onNode, XTriggerLog log) throws XTriggerException {
+        if (onNode && offlineSlaveOnStartup) {
+            log.info("No nodes were available at startup or at previous poll.");
+            log.info("Recording environment context and waiting for next schedule to check if there are modifications.");
+            offlineSlaveOnStartup = false;
+            setNewContext(newContext);
+            return false;
+        }
+
+        C oldContext = getCurrentContext();
+        if (oldContext == null) {
+            log.info("Recording context. Check changes in next poll.");
+            setNewContext(newContext);
+            return false;
+        }
+
+        boolean changed = checkIfModified(oldContext, newContext, log);
+        return changed;
+    }
+
+    private boolean checkIfModifiedOnNode(Node pollingNode, XTriggerContextComparator<C> comparator, XTriggerLog log) throws XTriggerException {
+        synchronized (lock) {
+            RemoteContextCheck.Result result = checkOnNode(pollingNode, comparator, log);
+            contextFingerprint = result.getFingerprint();
 
             if (offlineSlaveOnStartup) {
                 log.info("No nodes were available at startup or at previous poll.");
                 log.info("Recording environment context and waiting for next schedule to check if there are modifications.");
                 offlineSlaveOnStartup = false;
-                setNewContext(newContext);
                 return false;
             }
 
-            if (context == null) {
+            if (result.getChanged() == null) {
                 log.info("Recording context. Check changes in next poll.");
-                setNewContext(newContext);
                 return false;
             }
 
-            boolean changed = checkIfModified(context, newContext, log);
-            return changed;
+            return result.getChanged();
+        }
+    }
+
+    private RemoteContextCheck.Result checkOnNode(Node pollingNode, XTriggerContextComparator<C> comparator, XTriggerLog log) throws XTriggerException {
+        FilePath rootPath = pollingNode.getRootPath();
+        if (rootPath == null) {
+            throw new XTriggerException("The polling node is offline.");
+        }
+        RemoteContextCheck.Result result;
+        try {
+            result = rootPath.act(new RemoteContextCheck<>(getContextKey(), contextFingerprint, comparator, log));
+        } catch (IOException | InterruptedException e) {
+            throw new XTriggerException(e);
+        }
+        String previousNodeName = contextNodeName;
+        contextNodeName = pollingNode.getNodeName();
+        if (previousNodeName != null && !previousNodeName.equals(contextNodeName)) {
+            forgetContextOn(previousNodeName);
         }
+        return result;
+    }
+
+    /**
+     * Drops the context kept in the memory of a node, without waiting
+     */
+    private void forgetContextOn(String nodeName) {
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        if (jenkins == null) {
+            return;
+        }
+        Node node = nodeName.isEmpty() ? jenkins : jenkins.getNode(nodeName);
+        VirtualChannel channel = node != null ? node.getChannel() : null;
+        if (channel == null) {
+            // the context went away with the connection
+            return;
+        }
+        try {
+            channel.callAsync(new RemoteContextCheck.Removal(getContextKey()));
+        } catch (IOException ioe) {
+            LOGGER.log(Level.FINE, "Can't drop the trigger context kept on " + nodeName, ioe);
+        }
+    }
+
+    /**
+     * Identifies the contexts of this trigger in the polling node memory
+     */
+    private String getContextKey() {
+        String owner = job != null ? job.getFullName() : Integer.toHexString(System.identityHashCode(this));
+        return owner + "#" + getClass().getName();
     }
 
     @Override
@@ -89,17 +273,39 @@ public abstract class AbstractTriggerByFullContext<C extends XTriggerContext> ex
 //        }
         
         synchronized (lock) {
-            C newContext = getContext(log);
+            return compareWithCurrentContext(captureContext(null, log), false, log);
+        }
+    }
 
-            if (context == null) {
-                log.info("Recording context. Check changes in next poll.");
-                setNewContext(newContext);
-                return false;
-            }
+    /**
+     * Captures the context, through the {@link XTriggerContextCache} when the trigger has a configuration fingerprint
+     *
+     * @param pollingNode the polling node; null to use getContext(XTriggerLog log)
+     */
+    private C captureContext(Node pollingNode, XTriggerLog log) throws XTriggerException {
+        String cacheKey = getContextCacheKey(pollingNode);
+        if (cacheKey == null) {
+            return pollingNode != null ? getContext(pollingNode, log) : getContext(log);
+        }
+        return XTriggerContextCache.get().get(cacheKey,
+                () -> pollingNode != null ? getContext(pollingNode, log) : getContext(log), log);
+    }
 
-            boolean changed = checkIfModified(context, newContext, log);
-            return changed;
+    private CompletableFuture<C> captureContextAsync(Node pollingNode, XTriggerLog log) {
+        String cacheKey = getContextCacheKey(pollingNode);
+        if (cacheKey == null) {
+            return pollingNode != null ? getContextAsync(pollingNode, log) : getContextAsync(log);
         }
+        return XTriggerContextCache.get().getAsync(cacheKey,
+                () -> pollingNode != null ? getContextAsync(pollingNode, log) : getContextAsync(log), log);
+    }
+
+    private String getContextCacheKey(Node pollingNode) {
+        String fingerprint = getConfigurationFingerprint();
+        if (fingerprint == null || !XTriggerContextCache.get().isEnabled()) {
+            return null;
+        }
+        return getClass().getName() + "#" + fingerprint + "@" + (pollingNode != null ? pollingNode.getNodeName() : "");
     }
 
     protected void setNewContext(C context) {
@@ -110,7 +316,7 @@ public abstract class AbstractTriggerByFullContext<C extends XTriggerContext> ex
 //        }
         
         synchronized (lock) {
-            this.context = context;
+            storeContext(context);
         }
     }
 
@@ -127,10 +333,74 @@ public abstract class AbstractTriggerByFullContext<C extends XTriggerContext> ex
 //        }
         
         synchronized (lock) {
-            this.context = oldContext;
+            storeContext(oldContext);
+        }
+    }
+
+    private C getCurrentContext() throws XTriggerException {
+        if (contextSlot != null) {
+            try {
+                return contextSlot.get();
+            } catch (IOException ioe) {
+                throw new XTriggerException(ioe);
+            }
+        }
+        return context;
+    }
+
+    private void storeContext(C newContext) {
+        XTriggerContextCodec<C> codec = getContextCodec();
+        XTriggerContextStore store = XTriggerContextStore.get();
+        if (newContext != null && codec != null && store.isEnabled()) {
+            if (contextSlot == null) {
+                contextSlot = store.newSlot(codec);
+            }
+            try {
+                contextSlot.set(newContext);
+                context = null;
+                return;
+            } catch (IOException ioe) {
+                LOGGER.log(Level.WARNING, "Can't encode the trigger context; keeping it on the heap.", ioe);
+            }
+        }
+        releaseContextSlot();
+        context = newContext;
+    }
+
+    private void releaseContextSlot() {
+        if (contextSlot != null) {
+            contextSlot.release();
+            contextSlot = null;
+        }
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        String nodeName;
+        synchronized (lock) {
+            releaseContextSlot();
+            nodeName = contextNodeName;
+            contextNodeName = null;
+        }
+        if (nodeName != null) {
+            forgetContextOn(nodeName);
         }
     }
 
+    /**
+     * Gets the compact codec of the contexts
+     * <p>
+     * When provided, subclasses can transfer the contexts from the polling node with
+     * {@link XTriggerContextPayload} instead of the Java serialization of their object graph,
+     * and the last context is kept in the memory-bounded {@link XTriggerContextStore} when it is enabled.
+     *
+     * @return the codec; null to use the Java serialization
+     */
+    protected XTriggerContextCodec<C> getContextCodec() {
+        return null;
+    }
+
     /**
      * Captures the context
      * This method is alternative to getContext(XTriggerLog log)
@@ -151,6 +421,38 @@ public abstract class AbstractTriggerByFullContext<C extends XTriggerContext> ex
         return null;
     }
 
+    /**
+     * Captures the context without blocking the polling thread
+     * <p>
+     * Alternative to getContext(Node pollingNode, XTriggerLog log) for the subclasses waiting on I/O;
+     * the comparison with the previous context runs when the future completes.
+     * Not called when a {@link #getContextComparator() comparator} is provided.
+     *
+     * @return the future completed with the captured context
+     */
+    protected CompletableFuture<C> getContextAsync(Node pollingNode, XTriggerLog log) {
+        try {
+            return CompletableFuture.completedFuture(getContext(pollingNode, log));
+        } catch (XTriggerException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Captures the context without blocking the polling thread
+     * <p>
+     * Alternative to getContext(XTriggerLog log) for the subclasses waiting on I/O.
+     *
+     * @return the future completed with the captured context
+     */
+    protected CompletableFuture<C> getContextAsync(XTriggerLog log) {
+        try {
+            return CompletableFuture.completedFuture(getContext(log));
+        } catch (XTriggerException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * Checks if there are modifications in the environment between last poll
      *
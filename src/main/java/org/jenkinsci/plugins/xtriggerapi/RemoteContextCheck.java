@@ -0,0 +1,180 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import jenkins.security.MasterToSlaveCallable;
+import jenkins.util.SystemProperties;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Captures a context on the polling node and compares it with the previous one kept on that node.
+ * <p>
+ * The node keeps at most {@code org.jenkinsci.plugins.xtriggerapi.RemoteContextCheck.maxContexts} contexts
+ * (1000 by default), and drops the ones not polled for
+ * {@code org.jenkinsci.plugins.xtriggerapi.RemoteContextCheck.ttlHours} (24 by default);
+ * both are read on the controller. A context is also dropped when its trigger is stopped.
+ */
+class RemoteContextCheck<C extends XTriggerContext> extends MasterToSlaveCallable<RemoteContextCheck.Result, XTriggerException> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long TTL_MILLIS = TimeUnit.HOURS.toMillis(
+            SystemProperties.getLong(RemoteContextCheck.class.getName() + ".ttlHours", 24L));
+
+    private static final int MAX_CONTEXTS = SystemProperties.getInteger(RemoteContextCheck.class.getName() + ".maxContexts", 1000);
+
+    /**
+     * Last contexts captured on this node, by trigger key, least recently polled first; guarded by itself
+     */
+    private static final LinkedHashMap<String, Entry> CONTEXTS = new LinkedHashMap<>();
+
+    private final String key;
+
+    private final String expectedFingerprint;
+
+    private final XTriggerContextComparator<C> comparator;
+
+    private final XTriggerLog log;
+
+    private final long ttlMillis;
+
+    private final int maxContexts;
+
+    /**
+     * @param key                 the trigger key
+     * @param expectedFingerprint the fingerprint of the last context recorded by the controller; null if none
+     */
+    RemoteContextCheck(String key, String expectedFingerprint, XTriggerContextComparator<C> comparator, XTriggerLog log) {
+        this(key, expectedFingerprint, comparator, log, TTL_MILLIS, MAX_CONTEXTS);
+    }
+
+    RemoteContextCheck(String key, String expectedFingerprint, XTriggerContextComparator<C> comparator, XTriggerLog log,
+                       long ttlMillis, int maxContexts) {
+        this.key = key;
+        this.expectedFingerprint = expectedFingerprint;
+        this.comparator = comparator;
+        this.log = log;
+        this.ttlMillis = ttlMillis;
+        this.maxContexts = maxContexts;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Result call() throws XTriggerException {
+        C newContext = comparator.capture(log);
+        String newFingerprint = comparator.fingerprint(newContext);
+        Entry previous = get(key, ttlMillis);
+
+        Result result;
+        if (expectedFingerprint == null) {
+            result = new Result(null, newFingerprint);
+        } else if (previous != null && expectedFingerprint.equals(previous.fingerprint)) {
+            result = new Result(comparator.isModified((C) previous.context, newContext, log), newFingerprint);
+        } else {
+            log.info("The previous context is not available on this node. Comparing the context fingerprints.");
+            result = new Result(!expectedFingerprint.equals(newFingerprint), newFingerprint);
+        }
+        // only once compared: after a failed comparison, the next poll compares with the same previous context
+        put(key, new Entry(newContext, newFingerprint), maxContexts);
+        return result;
+    }
+
+    private static Entry get(String key, long ttlMillis) {
+        synchronized (CONTEXTS) {
+            long now = System.currentTimeMillis();
+            for (Iterator<Entry> it = CONTEXTS.values().iterator(); it.hasNext(); ) {
+                if (now - it.next().polled < ttlMillis) {
+                    break;
+                }
+                it.remove();
+            }
+            return CONTEXTS.get(key);
+        }
+    }
+
+    private static void put(String key, Entry entry, int maxContexts) {
+        synchronized (CONTEXTS) {
+            CONTEXTS.remove(key);
+            CONTEXTS.put(key, entry);
+            for (Iterator<Map.Entry<String, Entry>> it = CONTEXTS.entrySet().iterator(); CONTEXTS.size() > maxContexts && it.hasNext(); ) {
+                it.next();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the number of contexts kept on this node
+     */
+    static int size() {
+        synchronized (CONTEXTS) {
+            return CONTEXTS.size();
+        }
+    }
+
+    private static final class Entry {
+
+        private final XTriggerContext context;
+
+        private final String fingerprint;
+
+        private final long polled = System.currentTimeMillis();
+
+        Entry(XTriggerContext context, String fingerprint) {
+            this.context = context;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    /**
+     * Drops the context of a stopped trigger from the node memory
+     */
+    static final class Removal extends MasterToSlaveCallable<Boolean, RuntimeException> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String key;
+
+        Removal(String key) {
+            this.key = key;
+        }
+
+        /**
+         * @return true if the node held a context for the trigger
+         */
+        @Override
+        public Boolean call() {
+            synchronized (CONTEXTS) {
+                return CONTEXTS.remove(key) != null;
+            }
+        }
+    }
+
+    static final class Result implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Boolean changed;
+
+        private final String fingerprint;
+
+        Result(Boolean changed, String fingerprint) {
+            this.changed = changed;
+            this.fingerprint = fingerprint;
+        }
+
+        /**
+         * @return true if there are modifications; null if there was no previous context to compare with
+         */
+        Boolean getChanged() {
+            return changed;
+        }
+
+        String getFingerprint() {
+            return fingerprint;
+        }
+    }
+}
@@ -2,18 +2,9 @@ package org.jenkinsci.plugins.xtriggerapi;
 
 import hudson.console.HyperlinkNote;
 import hudson.model.Cause;
-import hudson.model.Run;
 import hudson.model.TaskListener;
-import jenkins.model.Jenkins;
-import jenkins.security.MasterToSlaveCallable;
-import org.apache.commons.io.FileUtils;
 
-import java.io.File;
-import java.io.IOException;
 import java.io.Serializable;
-import java.nio.charset.Charset;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 /**
  * @author Gregory Boissinot
@@ -25,14 +16,17 @@ public class XTriggerCause extends Cause implements Serializable {
 	 */
 	private static final long serialVersionUID = -3551026356358107079L;
 
-	private static Logger LOGGER = Logger.getLogger(XTriggerCause.class.getName());
-
     private String triggerName;
 
     private String causeFrom;
 
     private boolean logEnabled;
 
+    /**
+     * Number of detected changes merged into the build; 0 stands for 1 in data from earlier versions
+     */
+    private volatile int nbChanges = 1;
+
     protected XTriggerCause(String triggerName, String causeFrom) {
         this.triggerName = triggerName;
         this.causeFrom = causeFrom;
@@ -45,47 +39,39 @@ public class XTriggerCause extends Cause implements Serializable {
         this.logEnabled = logEnabled;
     }
 
-    @Override
-    public void onAddedTo(final Run build) {
-        final XTriggerCauseAction causeAction = build.getAction(XTriggerCauseAction.class);
-        if (causeAction != null) {
-            try {
-                Jenkins.get().getRootPath().act(new MasterToSlaveCallable<Void, XTriggerException>() {
-                    @Override
-                    public Void call() throws XTriggerException {
-                        causeAction.setBuild(build);
-                        File triggerLogFile = causeAction.getLogFile();
-                        String logContent = causeAction.getLogMessage();
-                        try {
-                            FileUtils.writeStringToFile(triggerLogFile, logContent, Charset.defaultCharset());
-                        } catch (IOException ioe) {
-                            throw new XTriggerException(ioe);
-                        }
-                        return null;
-                    }
-                });
-            } catch (IOException | InterruptedException | XTriggerException e) {
-                LOGGER.log(Level.SEVERE, "Problem to attach cause object to build object.", e);
-            }
-        }
+    /**
+     * Records another detected change merged into the build of this cause
+     */
+    synchronized void addChange() {
+        nbChanges = getNbChanges() + 1;
+    }
+
+    public int getNbChanges() {
+        return Math.max(1, nbChanges);
+    }
+
+    private String getChangesSuffix() {
+        return getNbChanges() > 1 ? String.format(" [%d changes]", getNbChanges()) : "";
     }
 
     @Override
     public String getShortDescription() {
+        String changes = getChangesSuffix();
         if (causeFrom == null) {
-            return "[" + triggerName + "]";
+            return "[" + triggerName + "]" + changes;
         } else if (!logEnabled) {
-            return String.format("[%s] %s", triggerName, causeFrom);
+            return String.format("[%s] %s%s", triggerName, causeFrom, changes);
         } else {
-            return String.format("[%s] %s (%s)", triggerName, causeFrom, "<a href=\"triggerCauseAction\">log</a>");
+            return String.format("[%s] %s%s (%s)", triggerName, causeFrom, changes, "<a href=\"triggerCauseAction\">log</a>");
         }
     }
 
     public void print(TaskListener listener) {
+        String changes = getChangesSuffix();
         if (causeFrom == null) {
-            listener.getLogger().println("[" + triggerName + "]");
+            listener.getLogger().println("[" + triggerName + "]" + changes);
         } else {
-            listener.getLogger().printf("[%s] %s (%s)%n", triggerName, causeFrom,
+            listener.getLogger().printf("[%s] %s%s (%s)%n", triggerName, causeFrom, changes,
                     HyperlinkNote.encodeTo("triggerCauseAction", "log"));
         }
     }
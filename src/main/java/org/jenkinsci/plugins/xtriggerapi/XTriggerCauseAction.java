@@ -2,44 +2,112 @@ package org.jenkinsci.plugins.xtriggerapi;
 
 import hudson.Util;
 import hudson.console.AnnotatedLargeText;
-import hudson.model.Action;
 import hudson.model.Run;
 
+import jenkins.model.RunAction2;
 import org.apache.commons.jelly.XMLOutput;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * @author Gregory Boissinot
  */
-public class XTriggerCauseAction implements Action {
+public class XTriggerCauseAction implements RunAction2 {
+
+    private static final Logger LOGGER = Logger.getLogger(XTriggerCauseAction.class.getName());
 
     private static final String URL_NAME = "triggerCauseAction";
 
+    private static final String LOG_FILE_NAME = "triggerlog.xml";
+
     /**
-     * Set when the cause object is added to the build object
-     * at job startup
+     * Kept to read the builds of earlier versions; always null once loaded
      */
+    @Deprecated
     private Run<?, ?> build;
 
     /**
-     * Set on creation
+     * The build owning the action, set when the action is attached to the build or loaded with it
      */
-    private transient String logMessage;
+    private transient Run<?, ?> run;
+
+    private String triggerName;
+
+    /**
+     * The poll log, from the creation of the action until it is written in the build directory
+     */
+    private transient volatile String logMessage;
 
 
     public XTriggerCauseAction(String logMessage) {
         this.logMessage = logMessage;
     }
 
+    public XTriggerCauseAction(String triggerName, String logMessage) {
+        this.triggerName = triggerName;
+        this.logMessage = logMessage;
+    }
+
+    protected Object readResolve() {
+        if (build != null) {
+            run = build;
+            build = null;
+        }
+        return this;
+    }
+
+    /**
+     * Gets a new action with the same log, to be attached to another build
+     */
+    XTriggerCauseAction copy() {
+        return new XTriggerCauseAction(triggerName, logMessage);
+    }
+
+    /**
+     * @return the poll log; null once it is written in the build directory
+     */
     public String getLogMessage() {
         return logMessage;
     }
 
+    /**
+     * Appends the log of another poll merged into the same build; the trigger log size limit applies when it is written
+     */
+    synchronized void appendLogMessage(String message) {
+        logMessage = (logMessage == null ? "" : logMessage) + "\n" + message;
+    }
+
+    @Override
+    public void onAttached(Run<?, ?> r) {
+        run = r;
+        String content;
+        synchronized (this) {
+            content = logMessage;
+            logMessage = null;
+        }
+        if (content == null) {
+            return;
+        }
+        try (OutputStream out = XTriggerLogRetention.limit(new FileOutputStream(getLogFile()))) {
+            out.write(content.getBytes(Charset.defaultCharset()));
+        } catch (IOException ioe) {
+            LOGGER.log(Level.SEVERE, "Problem to write the trigger log of " + r.getFullDisplayName(), ioe);
+        }
+    }
+
+    @Override
+    public void onLoad(Run<?, ?> r) {
+        run = r;
+    }
+
     @Override
     public String getIconFileName() {
         return null;
@@ -52,7 +120,7 @@ public class XTriggerCauseAction implements Action {
 
     @SuppressWarnings("unused")
     public Run<?, ?> getBuild() {
-        return build;
+        return run;
     }
 
     @Override
@@ -60,15 +128,19 @@ public class XTriggerCauseAction implements Action {
         return URL_NAME;
     }
 
+    /**
+     * @deprecated the build is set when the action is attached to it
+     */
+    @Deprecated
     public void setBuild(Run<?, ?> build) {
-        this.build = build;
+        this.run = build;
     }
 
     public File getLogFile() {
-        if (build == null) {
+        if (run == null) {
             return null;
         }
-        return new File(build.getRootDir(), "triggerlog.xml");
+        return new File(run.getRootDir(), LOG_FILE_NAME);
     }
 
     @SuppressWarnings("unused")
@@ -82,10 +154,13 @@ public class XTriggerCauseAction implements Action {
 
     @SuppressWarnings("unused")
     public String getTitle() {
-        if (build == null) {
+        if (triggerName != null) {
+            return triggerName + " Log";
+        }
+        if (run == null) {
             return "XTrigger Log";
         }
-        XTriggerCause triggerCause = build.getCause(XTriggerCause.class);
+        XTriggerCause triggerCause = run.getCause(XTriggerCause.class);
         if (triggerCause == null) {
             return "XTrigger Log";
         }
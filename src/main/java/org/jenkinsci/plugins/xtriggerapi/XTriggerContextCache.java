@@ -0,0 +1,173 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import jenkins.util.SystemProperties;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of the contexts captured by the {@link AbstractTriggerByFullContext} triggers,
+ * shared by the triggers having the same {@link AbstractTrigger#getConfigurationFingerprint() configuration fingerprint}.
+ * <p>
+ * A context captured on a node for one job is reused by the other jobs polling the same target on the same node
+ * for {@code org.jenkinsci.plugins.xtriggerapi.XTriggerContextCache.ttlSeconds} (30 by default; 0 disables the cache).
+ * A capture in progress is shared as well: the jobs asking meanwhile wait for it instead of starting their own.
+ */
+@ExportedBean
+public final class XTriggerContextCache {
+
+    private static final XTriggerContextCache INSTANCE = new XTriggerContextCache(
+            TimeUnit.SECONDS.toMillis(SystemProperties.getLong(XTriggerContextCache.class.getName() + ".ttlSeconds", 30L)));
+
+    private final long ttlMillis;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private volatile long nextPurge;
+
+    XTriggerContextCache(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    public static XTriggerContextCache get() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return ttlMillis > 0;
+    }
+
+    @Exported
+    public long getTtlSeconds() {
+        return TimeUnit.MILLISECONDS.toSeconds(ttlMillis);
+    }
+
+    @Exported
+    public int getSize() {
+        return entries.size();
+    }
+
+    @Exported
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Exported
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the percentage of the context captures served by the cache
+     */
+    @Exported
+    public int getHitRate() {
+        long nbHits = getHits();
+        long total = nbHits + getMisses();
+        return total == 0 ? 0 : (int) (nbHits * 100 / total);
+    }
+
+    /**
+     * Gets the cached context, or captures it on the calling thread
+     */
+    <C> C get(String key, Capture<C> capture, XTriggerLog log) throws XTriggerException {
+        CompletableFuture<C> future = getAsync(key, () -> {
+            try {
+                return CompletableFuture.completedFuture(capture.capture());
+            } catch (XTriggerException | RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }, log);
+        try {
+            return future.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new XTriggerException(ie);
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof XTriggerException) {
+                throw (XTriggerException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new XTriggerException(cause);
+        }
+    }
+
+    /**
+     * Gets the cached context, or starts its capture
+     */
+    @SuppressWarnings("unchecked")
+    <C> CompletableFuture<C> getAsync(String key, Supplier<CompletableFuture<C>> capture, XTriggerLog log) {
+        long now = System.currentTimeMillis();
+        purgeExpired(now);
+        CompletableFuture<C> created = new CompletableFuture<>();
+        Entry entry = entries.compute(key, (k, current) ->
+                current == null || current.isExpired(now) ? new Entry(created, now + ttlMillis) : current);
+        if (entry.context != created) {
+            hits.increment();
+            log.info("Reusing the context captured by a trigger with the same configuration.");
+            return (CompletableFuture<C>) entry.context;
+        }
+        misses.increment();
+        CompletableFuture<C> captured;
+        try {
+            captured = capture.get();
+        } catch (RuntimeException e) {
+            captured = CompletableFuture.failedFuture(e);
+        }
+        captured.whenComplete((context, error) -> {
+            if (error != null) {
+                // a failed capture must not be served to the other jobs
+                entries.remove(key, entry);
+                created.completeExceptionally(error);
+            } else {
+                created.complete(context);
+            }
+        });
+        return created;
+    }
+
+    private void purgeExpired(long now) {
+        if (now < nextPurge) {
+            return;
+        }
+        nextPurge = now + ttlMillis;
+        entries.values().removeIf(entry -> entry.isExpired(now));
+    }
+
+    /**
+     * Captures a context on the calling thread
+     */
+    interface Capture<C> {
+        C capture() throws XTriggerException;
+    }
+
+    private static final class Entry {
+
+        private final CompletableFuture<?> context;
+
+        private final long expiresAt;
+
+        Entry(CompletableFuture<?> context, long expiresAt) {
+            this.context = context;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
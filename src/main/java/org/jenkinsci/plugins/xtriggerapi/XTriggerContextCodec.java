@@ -0,0 +1,21 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * Compact binary encoding of a context, an alternative to the default Java serialization.
+ * <p>
+ * Returned by {@link AbstractTriggerByFullContext#getContextCodec()}; used for the transport
+ * of the contexts with {@link XTriggerContextPayload} and for the contexts moved off the heap
+ * by {@link XTriggerContextStore}.
+ * A codec is sent along with the encoded contexts, so it must be stateless.
+ *
+ * @param <C> the context type
+ */
+public interface XTriggerContextCodec<C extends XTriggerContext> extends Serializable {
+
+    void write(C context, XTriggerContextOutput out) throws IOException;
+
+    C read(XTriggerContextInput in) throws IOException;
+}
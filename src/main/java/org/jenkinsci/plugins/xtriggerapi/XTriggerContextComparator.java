@@ -0,0 +1,37 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import java.io.Serializable;
+
+/**
+ * Captures and compares contexts directly on the polling node.
+ * <p>
+ * Returned by {@link AbstractTriggerByFullContext#getContextComparator()}, it is sent to the polling node
+ * at each poll. The previous context stays in the node memory and only its fingerprint is kept
+ * by the controller, so a poll transfers a few bytes instead of the whole context.
+ *
+ * @param <C> the context type
+ */
+public interface XTriggerContextComparator<C extends XTriggerContext> extends Serializable {
+
+    /**
+     * Captures the current context; runs on the polling node
+     */
+    C capture(XTriggerLog log) throws XTriggerException;
+
+    /**
+     * Computes a digest of the context content
+     * <p>
+     * Two contexts with the same fingerprint are considered unchanged when the node does not
+     * hold the previous context any more (restart of the agent, polling on another node).
+     */
+    String fingerprint(C context);
+
+    /**
+     * Checks if there are modifications between two contexts; runs on the polling node
+     * <p>
+     * The details of the modifications can be written to the log, they are streamed back to the controller.
+     *
+     * @return true if there are modifications
+     */
+    boolean isModified(C oldContext, C newContext, XTriggerLog log) throws XTriggerException;
+}
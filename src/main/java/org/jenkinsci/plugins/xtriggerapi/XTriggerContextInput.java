@@ -0,0 +1,159 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary reader of the data written by {@link XTriggerContextOutput}.
+ * <p>
+ * The data comes from the polling nodes: the arrays and collections are grown as their elements are read
+ * rather than allocated from the length read on the stream, so a corrupt length fails on the end of the stream.
+ */
+public final class XTriggerContextInput {
+
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+
+    private final InputStream in;
+
+    private final List<String> strings = new ArrayList<>();
+
+    public XTriggerContextInput(InputStream in) {
+        this.in = in;
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    public int readInt() throws IOException {
+        return (int) readLong();
+    }
+
+    public long readLong() throws IOException {
+        long zigZag = readUnsigned();
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+
+    public String readString() throws IOException {
+        long tag = readUnsigned();
+        if (tag == 0) {
+            return null;
+        }
+        if (tag == 1) {
+            String value = new String(readRaw(readLength()), StandardCharsets.UTF_8);
+            strings.add(value);
+            return value;
+        }
+        long index = tag - 2;
+        if (index >= strings.size()) {
+            throw new IOException("Invalid string reference " + index);
+        }
+        return strings.get((int) index);
+    }
+
+    public byte[] readBytes() throws IOException {
+        return readRaw(readLength());
+    }
+
+    public int[] readIntArray() throws IOException {
+        int length = readLength();
+        int[] values = new int[initialCapacity(length)];
+        for (int i = 0; i < length; i++) {
+            if (i == values.length) {
+                values = Arrays.copyOf(values, grownCapacity(values.length, length));
+            }
+            values[i] = readInt();
+        }
+        return values;
+    }
+
+    public long[] readLongArray() throws IOException {
+        int length = readLength();
+        long[] values = new long[initialCapacity(length)];
+        for (int i = 0; i < length; i++) {
+            if (i == values.length) {
+                values = Arrays.copyOf(values, grownCapacity(values.length, length));
+            }
+            values[i] = readLong();
+        }
+        return values;
+    }
+
+    public List<String> readStringList() throws IOException {
+        int size = readLength();
+        List<String> values = new ArrayList<>(initialCapacity(size));
+        for (int i = 0; i < size; i++) {
+            values.add(readString());
+        }
+        return values;
+    }
+
+    public Map<String, String> readStringMap() throws IOException {
+        int size = readLength();
+        Map<String, String> values = new HashMap<>(initialCapacity(size) * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            values.put(readString(), readString());
+        }
+        return values;
+    }
+
+    private static int initialCapacity(int length) {
+        return Math.min(length, MAX_INITIAL_CAPACITY);
+    }
+
+    private static int grownCapacity(int capacity, int length) {
+        return (int) Math.min(length, 2L * capacity);
+    }
+
+    private int readLength() throws IOException {
+        long length = readUnsigned();
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IOException("Invalid length " + length);
+        }
+        return (int) length;
+    }
+
+    private long readUnsigned() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    private int readByte() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException();
+        }
+        return b;
+    }
+
+    private byte[] readRaw(int length) throws IOException {
+        // readNBytes grows its buffer as the bytes come
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException();
+        }
+        return bytes;
+    }
+
+    /**
+     * Decodes a context from a byte array
+     */
+    public static <C extends XTriggerContext> C decode(byte[] bytes, XTriggerContextCodec<C> codec) throws IOException {
+        return codec.read(new XTriggerContextInput(new ByteArrayInputStream(bytes)));
+    }
+}
@@ -0,0 +1,135 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary writer used by {@link XTriggerContextCodec}.
+ * <p>
+ * Integers are variable-length encoded, strings and arrays are length-prefixed,
+ * and a repeated string is written once and then referenced by its index.
+ * Read back with {@link XTriggerContextInput}.
+ */
+public final class XTriggerContextOutput {
+
+    private final OutputStream out;
+
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    public XTriggerContextOutput(OutputStream out) {
+        this.out = out;
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        out.write(value ? 1 : 0);
+    }
+
+    public void writeInt(int value) throws IOException {
+        writeLong(value);
+    }
+
+    public void writeLong(long value) throws IOException {
+        long zigZag = (value << 1) ^ (value >> 63);
+        writeUnsigned(zigZag);
+    }
+
+    /**
+     * Writes a string; null is allowed
+     */
+    public void writeString(String value) throws IOException {
+        if (value == null) {
+            writeUnsigned(0);
+            return;
+        }
+        Integer index = strings.get(value);
+        if (index != null) {
+            writeUnsigned(index + 2L);
+            return;
+        }
+        strings.put(value, strings.size());
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeUnsigned(1);
+        writeUnsigned(bytes.length);
+        out.write(bytes);
+    }
+
+    public void writeBytes(byte[] value) throws IOException {
+        writeUnsigned(value.length);
+        out.write(value);
+    }
+
+    public void writeIntArray(int[] values) throws IOException {
+        writeUnsigned(values.length);
+        for (int value : values) {
+            writeInt(value);
+        }
+    }
+
+    public void writeLongArray(long[] values) throws IOException {
+        writeUnsigned(values.length);
+        for (long value : values) {
+            writeLong(value);
+        }
+    }
+
+    public void writeStringList(List<String> values) throws IOException {
+        writeUnsigned(values.size());
+        for (String value : values) {
+            writeString(value);
+        }
+    }
+
+    public void writeStringMap(Map<String, String> values) throws IOException {
+        writeUnsigned(values.size());
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            writeString(entry.getKey());
+            writeString(entry.getValue());
+        }
+    }
+
+    private void writeUnsigned(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * Encodes a context into a byte array
+     */
+    public static <C extends XTriggerContext> byte[] encode(C context, XTriggerContextCodec<C> codec) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.write(context, new XTriggerContextOutput(bytes));
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Gets the size of the encoding of a context, without keeping the encoding
+     */
+    public static <C extends XTriggerContext> int encodedSize(C context, XTriggerContextCodec<C> codec) throws IOException {
+        CountingOutputStream counter = new CountingOutputStream();
+        codec.write(context, new XTriggerContextOutput(counter));
+        return counter.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private int count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
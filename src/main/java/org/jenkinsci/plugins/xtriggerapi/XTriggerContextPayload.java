@@ -0,0 +1,72 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import jenkins.util.SystemProperties;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+/**
+ * Wraps a context so that it is serialized with its {@link XTriggerContextCodec}
+ * instead of the default Java serialization of its object graph.
+ * <p>
+ * Typically returned by the callable capturing the context on the polling node:
+ * {@code return XTriggerContextPayload.of(context, codec);} and unwrapped on the controller with {@link #get()}.
+ * An encoded context larger than {@code org.jenkinsci.plugins.xtriggerapi.XTriggerContextPayload.maxBytes}
+ * (64 MiB by default) is rejected when read.
+ *
+ * @param <C> the context type
+ */
+public final class XTriggerContextPayload<C extends XTriggerContext> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int MAX_BYTES = SystemProperties.getInteger(XTriggerContextPayload.class.getName() + ".maxBytes", 64 * 1024 * 1024);
+
+    private final XTriggerContextCodec<C> codec;
+
+    private transient C context;
+
+    private XTriggerContextPayload(C context, XTriggerContextCodec<C> codec) {
+        this.context = context;
+        this.codec = codec;
+    }
+
+    public static <C extends XTriggerContext> XTriggerContextPayload<C> of(C context, XTriggerContextCodec<C> codec) {
+        return new XTriggerContextPayload<>(context, codec);
+    }
+
+    public C get() {
+        return context;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        boolean present = context != null;
+        out.writeBoolean(present);
+        if (present) {
+            byte[] bytes = XTriggerContextOutput.encode(context, codec);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (in.readBoolean()) {
+            int length = in.readInt();
+            if (length < 0 || length > MAX_BYTES) {
+                throw new InvalidObjectException("Invalid encoded context length: " + length);
+            }
+            // read in chunks: the length is only trusted once the bytes are there
+            byte[] bytes = in.readNBytes(length);
+            if (bytes.length < length) {
+                throw new EOFException("Encoded context truncated: " + bytes.length + " of " + length + " bytes");
+            }
+            context = XTriggerContextInput.decode(bytes, codec);
+        }
+    }
+}
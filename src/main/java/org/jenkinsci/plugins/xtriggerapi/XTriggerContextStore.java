@@ -0,0 +1,237 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import jenkins.util.SystemProperties;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Memory-bounded storage of the last contexts of the {@link AbstractTriggerByFullContext} triggers.
+ * <p>
+ * Disabled unless the {@code org.jenkinsci.plugins.xtriggerapi.XTriggerContextStore.maxHeapBytes} system property
+ * is set. Only the triggers providing a {@link XTriggerContextCodec} use it: their most recently used contexts
+ * stay on the heap within the budget, the others are moved to off-heap memory,
+ * then decoded again on their next poll. The budget applies to the encoded size of the contexts, measured when
+ * they are stored without keeping the encoding; a context is only encoded into memory when it leaves the heap.
+ */
+@ExportedBean
+public final class XTriggerContextStore {
+
+    private static final Logger LOGGER = Logger.getLogger(XTriggerContextStore.class.getName());
+
+    private static final XTriggerContextStore INSTANCE = new XTriggerContextStore(
+            SystemProperties.getLong(XTriggerContextStore.class.getName() + ".maxHeapBytes", 0L));
+
+    private final long maxHeapBytes;
+
+    /**
+     * Resident slots with their encoded size, least recently used first; guarded by this
+     */
+    private final LinkedHashMap<Slot<?>, Integer> resident = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long residentBytes;
+
+    private long spilledBytes;
+
+    private int spilledContexts;
+
+    private final LongAdder spills = new LongAdder();
+
+    private final LongAdder loads = new LongAdder();
+
+    XTriggerContextStore(long maxHeapBytes) {
+        this.maxHeapBytes = maxHeapBytes;
+    }
+
+    public static XTriggerContextStore get() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return maxHeapBytes > 0;
+    }
+
+    @Exported
+    public long getMaxHeapBytes() {
+        return maxHeapBytes;
+    }
+
+    /**
+     * @return the encoded size of the contexts on the heap; their object graphs use more heap than that
+     */
+    @Exported
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    @Exported
+    public synchronized int getResidentContexts() {
+        return resident.size();
+    }
+
+    @Exported
+    public synchronized long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    @Exported
+    public synchronized int getSpilledContexts() {
+        return spilledContexts;
+    }
+
+    /**
+     * @return the number of contexts moved off the heap since startup
+     */
+    @Exported
+    public long getSpills() {
+        return spills.sum();
+    }
+
+    /**
+     * @return the number of contexts loaded back on the heap since startup
+     */
+    @Exported
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    <C extends XTriggerContext> Slot<C> newSlot(XTriggerContextCodec<C> codec) {
+        return new Slot<>(codec);
+    }
+
+    private synchronized void markResident(Slot<?> slot, int size) {
+        Integer previous = resident.put(slot, size);
+        if (previous != null) {
+            residentBytes -= previous;
+        }
+        residentBytes += size;
+    }
+
+    private synchronized void touch(Slot<?> slot) {
+        resident.get(slot);
+    }
+
+    private synchronized boolean isResident(Slot<?> slot) {
+        return resident.containsKey(slot);
+    }
+
+    private synchronized void unmarkResident(Slot<?> slot) {
+        Integer size = resident.remove(slot);
+        if (size != null) {
+            residentBytes -= size;
+        }
+    }
+
+    private synchronized void addSpilled(int delta, int count) {
+        spilledBytes += delta;
+        spilledContexts += count;
+    }
+
+    /**
+     * Moves the least recently used contexts off the heap until the budget is respected.
+     * Must be called without holding a slot lock.
+     */
+    private void evict() {
+        while (true) {
+            Slot<?> victim;
+            synchronized (this) {
+                if (residentBytes <= maxHeapBytes || resident.size() <= 1) {
+                    return;
+                }
+                Iterator<Map.Entry<Slot<?>, Integer>> eldest = resident.entrySet().iterator();
+                Map.Entry<Slot<?>, Integer> entry = eldest.next();
+                victim = entry.getKey();
+                residentBytes -= entry.getValue();
+                eldest.remove();
+            }
+            victim.spill();
+        }
+    }
+
+    /**
+     * Storage of the context of one trigger
+     */
+    final class Slot<C extends XTriggerContext> {
+
+        private final XTriggerContextCodec<C> codec;
+
+        private C context;
+
+        private ByteBuffer spilled;
+
+        private Slot(XTriggerContextCodec<C> codec) {
+            this.codec = codec;
+        }
+
+        C get() throws IOException {
+            C result;
+            synchronized (this) {
+                if (context != null) {
+                    touch(this);
+                    return context;
+                }
+                if (spilled == null) {
+                    return null;
+                }
+                byte[] bytes = new byte[spilled.remaining()];
+                spilled.duplicate().get(bytes);
+                context = XTriggerContextInput.decode(bytes, codec);
+                spilled = null;
+                addSpilled(-bytes.length, -1);
+                markResident(this, bytes.length);
+                loads.increment();
+                result = context;
+            }
+            evict();
+            return result;
+        }
+
+        void set(C newContext) throws IOException {
+            int size = XTriggerContextOutput.encodedSize(newContext, codec);
+            synchronized (this) {
+                if (spilled != null) {
+                    addSpilled(-spilled.capacity(), -1);
+                    spilled = null;
+                }
+                context = newContext;
+                markResident(this, size);
+            }
+            evict();
+        }
+
+        synchronized void release() {
+            unmarkResident(this);
+            if (spilled != null) {
+                addSpilled(-spilled.capacity(), -1);
+                spilled = null;
+            }
+            context = null;
+        }
+
+        private synchronized void spill() {
+            if (context == null || isResident(this)) {
+                return;
+            }
+            try {
+                byte[] bytes = XTriggerContextOutput.encode(context, codec);
+                ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+                buffer.put(bytes).flip();
+                spilled = buffer;
+                addSpilled(bytes.length, 1);
+                context = null;
+                spills.increment();
+            } catch (IOException | OutOfMemoryError e) {
+                LOGGER.log(Level.WARNING, "Can't move a trigger context off the heap; keeping it on the heap.", e);
+                markResident(this, 0);
+            }
+        }
+    }
+}
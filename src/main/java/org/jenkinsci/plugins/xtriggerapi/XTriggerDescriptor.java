@@ -1,9 +1,11 @@
 package org.jenkinsci.plugins.xtriggerapi;
 
 import hudson.model.Item;
+import hudson.triggers.Trigger;
 import hudson.triggers.TriggerDescriptor;
-import hudson.util.SequentialExecutionQueue;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -12,10 +14,68 @@ import java.util.concurrent.Executors;
  */
 public abstract class XTriggerDescriptor extends TriggerDescriptor {
 
-    private transient final SequentialExecutionQueue queue = new SequentialExecutionQueue(Executors.newSingleThreadExecutor());
+    private transient final XTriggerPollQueue queue = new XTriggerPollQueue(Executors.newSingleThreadExecutor());
+
+    private transient final XTriggerPollingStatistics statistics = new XTriggerPollingStatistics();
 
     public ExecutorService getExecutor() {
-        return queue.getExecutors();
+        return queue.getExecutor();
+    }
+
+    /**
+     * Replaces the executor running the polls of this trigger type
+     * <p>
+     * The previous executor is shut down; the polls already submitted to it still complete.
+     *
+     * @param executor the new executor
+     */
+    public void setExecutor(ExecutorService executor) {
+        queue.setExecutor(executor);
+    }
+
+    /**
+     * Queues a poll; the pending polls are run by priority
+     */
+    void submit(Runnable poll, XTriggerPriority priority) {
+        queue.submit(poll, priority);
+    }
+
+    /**
+     * Drops the queued polls; they are deferred to the next startup
+     */
+    void cancelPendingPolls() {
+        for (Runnable poll : queue.cancelPending()) {
+            if (poll instanceof AbstractTrigger.Runner) {
+                ((AbstractTrigger.Runner) poll).cancel();
+            }
+        }
+    }
+
+    /**
+     * @return the number of pending polls of the given priority
+     */
+    public int getQueueDepth(XTriggerPriority priority) {
+        return queue.size(priority);
+    }
+
+    /**
+     * Gets the polling counters of all the triggers of this type
+     */
+    public XTriggerPollingStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Gets the descriptors of all the installed XTrigger based triggers
+     */
+    static List<XTriggerDescriptor> all() {
+        List<XTriggerDescriptor> result = new ArrayList<>();
+        for (TriggerDescriptor descriptor : Trigger.all()) {
+            if (descriptor instanceof XTriggerDescriptor) {
+                result.add((XTriggerDescriptor) descriptor);
+            }
+        }
+        return result;
     }
 
     @Override
@@ -0,0 +1,219 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.init.Terminator;
+import hudson.model.BuildableItem;
+import hudson.model.Item;
+import hudson.model.RestartListener;
+import hudson.triggers.Trigger;
+import jenkins.model.Jenkins;
+import jenkins.triggers.TriggeredItem;
+import jenkins.util.SystemProperties;
+import jenkins.util.Timer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stops the polling of the XTrigger based triggers cleanly on quiet-down, restart and shutdown.
+ * <p>
+ * During a quiet-down, new and queued polls are not run but deferred. A safe restart waits for the running polls
+ * up to {@code org.jenkinsci.plugins.xtriggerapi.XTriggerLifecycle.drainTimeoutSeconds} (60 by default).
+ * The deferred polls are saved on shutdown and run again after the next startup, spread over
+ * {@code org.jenkinsci.plugins.xtriggerapi.XTriggerLifecycle.startupSpreadSeconds} (60 by default)
+ * instead of all at once; the cron ticks of their jobs are skipped until then.
+ */
+@Extension
+public class XTriggerLifecycle extends RestartListener {
+
+    private static final Logger LOGGER = Logger.getLogger(XTriggerLifecycle.class.getName());
+
+    private static final long DRAIN_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(
+            SystemProperties.getLong(XTriggerLifecycle.class.getName() + ".drainTimeoutSeconds", 60L));
+
+    private static final long STARTUP_SPREAD_MILLIS = TimeUnit.SECONDS.toMillis(
+            SystemProperties.getLong(XTriggerLifecycle.class.getName() + ".startupSpreadSeconds", 60L));
+
+    /**
+     * Full names of the jobs with a deferred poll
+     */
+    private static final Set<String> DEFERRED = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Full names of the jobs whose deferred poll is scheduled after the startup
+     */
+    private static final Set<String> RESUMING = ConcurrentHashMap.newKeySet();
+
+    private volatile long drainStarted;
+
+    /**
+     * Records a poll not run because Jenkins is going down, to run it after the next startup
+     */
+    static void deferPoll(BuildableItem job) {
+        if (job != null) {
+            DEFERRED.add(job.getFullName());
+        }
+    }
+
+    /**
+     * Forgets the deferred poll of a job once a poll of the job runs
+     */
+    static void clearDeferredPoll(BuildableItem job) {
+        if (job != null) {
+            DEFERRED.remove(job.getFullName());
+        }
+    }
+
+    /**
+     * Tells if a poll of the job is deferred to the next startup
+     */
+    static boolean isDeferred(BuildableItem job) {
+        return DEFERRED.contains(job.getFullName());
+    }
+
+    /**
+     * Tells if the deferred poll of the job is about to run; it replaces the cron ticks of the job meanwhile
+     */
+    static boolean isResuming(BuildableItem job) {
+        return job != null && RESUMING.contains(job.getFullName());
+    }
+
+    @Override
+    public boolean isReadyToRestart() {
+        cancelPendingPolls();
+        int inFlight = getInFlightPolls();
+        if (inFlight == 0) {
+            drainStarted = 0;
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (drainStarted == 0) {
+            drainStarted = now;
+        }
+        if (now - drainStarted >= DRAIN_TIMEOUT_MILLIS) {
+            LOGGER.warning(String.format("%d XTrigger polls still running after %d s; not waiting for them.",
+                    inFlight, TimeUnit.MILLISECONDS.toSeconds(DRAIN_TIMEOUT_MILLIS)));
+            return true;
+        }
+        LOGGER.info(String.format("Waiting for %d running XTrigger polls before restarting; %d polls deferred.", inFlight, DEFERRED.size()));
+        return false;
+    }
+
+    @Terminator
+    public static void shutdown() throws InterruptedException {
+        cancelPendingPolls();
+        List<ExecutorService> executors = new ArrayList<>();
+        for (XTriggerDescriptor descriptor : XTriggerDescriptor.all()) {
+            ExecutorService executor = descriptor.getExecutor();
+            executor.shutdown();
+            executors.add(executor);
+        }
+        long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MILLIS;
+        for (ExecutorService executor : executors) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0 || !executor.awaitTermination(remaining, TimeUnit.MILLISECONDS)) {
+                LOGGER.warning("XTrigger polls still running at shutdown; interrupting them.");
+                executor.shutdownNow();
+            }
+        }
+        saveDeferredPolls();
+    }
+
+    @Initializer(after = InitMilestone.JOB_CONFIG_ADAPTED)
+    public static void resumeDeferredPolls() {
+        resumeDeferredPolls(STARTUP_SPREAD_MILLIS);
+    }
+
+    static void resumeDeferredPolls(long spreadMillis) {
+        XmlFile file = getDeferredPollsFile();
+        if (!file.exists()) {
+            return;
+        }
+        List<String> jobNames;
+        try {
+            @SuppressWarnings("unchecked")
+            List<String> saved = (List<String>) file.read();
+            jobNames = saved;
+        } catch (IOException | ClassCastException e) {
+            LOGGER.log(Level.WARNING, "Can't read the deferred XTrigger polls", e);
+            return;
+        } finally {
+            if (!file.getFile().delete()) {
+                LOGGER.warning("Can't delete " + file);
+            }
+        }
+        Map<String, List<AbstractTrigger>> triggers = new LinkedHashMap<>();
+        List<String> unresolved = new ArrayList<>();
+        for (String jobName : jobNames) {
+            // a job or a folder
+            Item item = Jenkins.get().getItemByFullName(jobName);
+            if (!(item instanceof TriggeredItem)) {
+                unresolved.add(jobName);
+                continue;
+            }
+            for (Trigger<?> trigger : ((TriggeredItem) item).getTriggers().values()) {
+                if (trigger instanceof AbstractTrigger) {
+                    triggers.computeIfAbsent(jobName, name -> new ArrayList<>()).add((AbstractTrigger) trigger);
+                }
+            }
+        }
+        if (!unresolved.isEmpty()) {
+            LOGGER.warning("Dropping the deferred XTrigger polls of the removed or unsupported items " + unresolved);
+        }
+        LOGGER.info(String.format("Resuming the XTrigger polls of %d jobs and folders deferred by the last shutdown.", triggers.size()));
+        RESUMING.addAll(triggers.keySet());
+        int i = 0;
+        for (Map.Entry<String, List<AbstractTrigger>> entry : triggers.entrySet()) {
+            Timer.get().schedule(() -> {
+                RESUMING.remove(entry.getKey());
+                for (AbstractTrigger trigger : entry.getValue()) {
+                    trigger.poll();
+                }
+            }, spreadMillis * i++ / triggers.size(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void cancelPendingPolls() {
+        for (XTriggerDescriptor descriptor : XTriggerDescriptor.all()) {
+            descriptor.cancelPendingPolls();
+        }
+    }
+
+    private static int getInFlightPolls() {
+        int result = 0;
+        for (XTriggerDescriptor descriptor : XTriggerDescriptor.all()) {
+            result += descriptor.getStatistics().getInFlight();
+        }
+        return result;
+    }
+
+    static void saveDeferredPolls() {
+        if (DEFERRED.isEmpty()) {
+            return;
+        }
+        try {
+            getDeferredPollsFile().write(new ArrayList<>(new TreeSet<>(DEFERRED)));
+            LOGGER.info(String.format("Saved %d deferred XTrigger polls.", DEFERRED.size()));
+        } catch (IOException ioe) {
+            LOGGER.log(Level.WARNING, "Can't save the deferred XTrigger polls", ioe);
+        }
+    }
+
+    private static XmlFile getDeferredPollsFile() {
+        return new XmlFile(new File(Jenkins.get().getRootDir(), XTriggerLifecycle.class.getName() + ".xml"));
+    }
+}
@@ -0,0 +1,195 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import hudson.Extension;
+import hudson.model.AsyncPeriodicWork;
+import hudson.model.Item;
+import hudson.model.TaskListener;
+import hudson.triggers.Trigger;
+import jenkins.model.Jenkins;
+import jenkins.triggers.TriggeredItem;
+import jenkins.util.SystemProperties;
+
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the disk space used by the trigger logs.
+ * <p>
+ * Each trigger log, and each {@code triggerlog.xml} of a build, is truncated as it is written once it reaches
+ * {@code org.jenkinsci.plugins.xtriggerapi.XTriggerLogRetention.maxLogBytes} (1 MiB by default).
+ * Every {@code org.jenkinsci.plugins.xtriggerapi.XTriggerLogRetention.sweepIntervalHours} (24 by default),
+ * the log files left in the job and folder directories by removed triggers are deleted,
+ * and the logs grown above the limit by earlier versions are truncated. Only the file names used by the triggers
+ * of the installed XTrigger types are considered, and an item whose triggers can't be listed is left as is.
+ */
+@Extension
+public class XTriggerLogRetention extends AsyncPeriodicWork {
+
+    static final long MAX_LOG_BYTES = SystemProperties.getLong(XTriggerLogRetention.class.getName() + ".maxLogBytes", 1024L * 1024L);
+
+    private static final long SWEEP_INTERVAL_HOURS = SystemProperties.getLong(XTriggerLogRetention.class.getName() + ".sweepIntervalHours", 24L);
+
+    public XTriggerLogRetention() {
+        super("XTrigger log retention");
+    }
+
+    @Override
+    public long getRecurrencePeriod() {
+        return TimeUnit.HOURS.toMillis(SWEEP_INTERVAL_HOURS);
+    }
+
+    /**
+     * Gets the line appended to a log truncated at the size limit
+     */
+    static byte[] truncationMarker(long droppedBytes) {
+        return String.format("%n[XTrigger] Log truncated: %d bytes over the %d bytes limit were dropped.%n", droppedBytes, MAX_LOG_BYTES)
+                .getBytes(Charset.defaultCharset());
+    }
+
+    /**
+     * Wraps the stream of a log file so that it stops growing at the size limit
+     */
+    static OutputStream limit(OutputStream out) {
+        return new LimitedOutputStream(out);
+    }
+
+    @Override
+    protected void execute(TaskListener listener) {
+        int deleted = 0;
+        int truncated = 0;
+        Set<XTriggerDescriptor> descriptors = new HashSet<>(XTriggerDescriptor.all());
+        Set<String> logNames = new HashSet<>();
+        for (Item item : Jenkins.get().allItems(Item.class)) {
+            try {
+                for (AbstractTrigger trigger : getTriggers(item)) {
+                    File logFile = getLogFile(item, trigger);
+                    if (logFile != null && descriptors.contains(trigger.getDescriptor())) {
+                        logNames.add(logFile.getName());
+                    }
+                }
+            } catch (RuntimeException e) {
+                listener.error("Can't list the trigger logs of " + item.getFullName() + ": " + e);
+            }
+        }
+        for (Item item : Jenkins.get().allItems(Item.class)) {
+            Set<File> current = new HashSet<>();
+            try {
+                for (AbstractTrigger trigger : getTriggers(item)) {
+                    current.add(getLogFile(item, trigger));
+                }
+            } catch (RuntimeException e) {
+                // can't tell the orphans apart
+                listener.error("Can't sweep the trigger logs of " + item.getFullName() + ": " + e);
+                continue;
+            }
+            for (String logName : logNames) {
+                File logFile = new File(item.getRootDir(), logName);
+                if (!logFile.isFile()) {
+                    continue;
+                }
+                if (!current.contains(logFile)) {
+                    if (logFile.delete()) {
+                        deleted++;
+                    } else {
+                        listener.getLogger().println("Can't delete the orphaned trigger log " + logFile);
+                    }
+                } else if (logFile.length() > MAX_LOG_BYTES) {
+                    try {
+                        truncate(logFile);
+                        truncated++;
+                    } catch (IOException ioe) {
+                        listener.error("Can't truncate the trigger log " + logFile + ": " + ioe.getMessage());
+                    }
+                }
+            }
+        }
+        listener.getLogger().printf("%d orphaned trigger logs deleted, %d trigger logs truncated.%n", deleted, truncated);
+    }
+
+    /**
+     * Gets the XTrigger based triggers of the job or folder
+     */
+    private static List<AbstractTrigger> getTriggers(Item item) {
+        List<AbstractTrigger> result = new ArrayList<>();
+        if (!(item instanceof TriggeredItem)) {
+            return result;
+        }
+        for (Trigger<?> trigger : ((TriggeredItem) item).getTriggers().values()) {
+            if (trigger instanceof AbstractTrigger) {
+                result.add((AbstractTrigger) trigger);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the log of the trigger if it is located in the job or folder directory
+     *
+     * @return null if the log is located elsewhere
+     */
+    private static File getLogFile(Item item, AbstractTrigger trigger) {
+        File logFile = trigger.getLogFile();
+        return logFile != null && item.getRootDir().equals(logFile.getParentFile()) ? logFile : null;
+    }
+
+    private static void truncate(File logFile) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(logFile, "rw")) {
+            long dropped = file.length() - MAX_LOG_BYTES;
+            file.setLength(MAX_LOG_BYTES);
+            file.seek(MAX_LOG_BYTES);
+            file.write(truncationMarker(dropped));
+        }
+    }
+
+    /**
+     * Drops the bytes written over the size limit and appends the truncation marker on close
+     */
+    private static final class LimitedOutputStream extends FilterOutputStream {
+
+        private long written;
+
+        private long dropped;
+
+        LimitedOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (written < MAX_LOG_BYTES) {
+                out.write(b);
+                written++;
+            } else {
+                dropped++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int kept = (int) Math.max(0, Math.min(len, MAX_LOG_BYTES - written));
+            out.write(b, off, kept);
+            written += kept;
+            dropped += len - kept;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (dropped > 0) {
+                    out.write(truncationMarker(dropped));
+                }
+            } finally {
+                super.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.model.Node;
+import jenkins.model.NodeListener;
+import jenkins.util.SystemProperties;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of polls running at once on each node, across all the XTrigger descriptors.
+ * <p>
+ * Disabled unless the {@code org.jenkinsci.plugins.xtriggerapi.XTriggerNodeGovernor.maxConcurrentPollsPerNode}
+ * system property is set. A poll whose preferred node is full is redirected to another eligible node
+ * with a free slot; if there is none, it is parked until a poll ends on the preferred node, for up to
+ * {@code org.jenkinsci.plugins.xtriggerapi.XTriggerNodeGovernor.maxWaitSeconds} (30 by default).
+ * A parked poll doesn't hold a polling thread.
+ */
+final class XTriggerNodeGovernor {
+
+    private static final XTriggerNodeGovernor INSTANCE = new XTriggerNodeGovernor(
+            SystemProperties.getInteger(XTriggerNodeGovernor.class.getName() + ".maxConcurrentPollsPerNode", 0),
+            SystemProperties.getLong(XTriggerNodeGovernor.class.getName() + ".maxWaitSeconds", 30L));
+
+    private final int maxConcurrentPolls;
+
+    private final long maxWaitSeconds;
+
+    private final ConcurrentMap<String, Semaphore> slots = new ConcurrentHashMap<>();
+
+    /**
+     * Parked polls by node name, first parked first; guarded by this
+     */
+    private final Map<String, ArrayDeque<CompletableFuture<Node>>> waiting = new HashMap<>();
+
+    XTriggerNodeGovernor(int maxConcurrentPolls, long maxWaitSeconds) {
+        this.maxConcurrentPolls = maxConcurrentPolls;
+        this.maxWaitSeconds = maxWaitSeconds;
+    }
+
+    static XTriggerNodeGovernor get() {
+        return INSTANCE;
+    }
+
+    boolean isEnabled() {
+        return maxConcurrentPolls > 0;
+    }
+
+    /**
+     * Takes a polling slot on one of the nodes, or parks the poll until a slot is freed on the preferred node
+     *
+     * @param nodes the eligible nodes, preferred first; not empty
+     * @return the future of the node to poll on, to be given back with {@link #release(Node)};
+     * completed with null if no slot was freed in time
+     */
+    CompletableFuture<Node> acquire(List<Node> nodes, XTriggerLog log) {
+        Node preferred = nodes.get(0);
+        if (!isEnabled()) {
+            return CompletableFuture.completedFuture(preferred);
+        }
+        CompletableFuture<Node> waiter = new CompletableFuture<>();
+        synchronized (this) {
+            for (Node node : nodes) {
+                if (slotsOf(node).tryAcquire()) {
+                    if (node != preferred) {
+                        log.info(String.format("%s runs the maximum number of polls. Redirecting the poll to %s.",
+                                preferred.getDisplayName(), node.getDisplayName()));
+                    }
+                    return CompletableFuture.completedFuture(node);
+                }
+            }
+            waiting.computeIfAbsent(preferred.getNodeName(), name -> new ArrayDeque<>()).add(waiter);
+        }
+        log.info(String.format("All the eligible nodes run the maximum number of polls. Waiting for %s.", preferred.getDisplayName()));
+        // a slot freed later is handed to the next parked poll
+        return waiter.completeOnTimeout(null, maxWaitSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Gives back a slot; it goes to the first poll parked on the node, if any
+     */
+    void release(Node node) {
+        if (!isEnabled()) {
+            return;
+        }
+        String name = node.getNodeName();
+        synchronized (this) {
+            Semaphore semaphore = slots.get(name);
+            if (semaphore == null) {
+                // the node was removed meanwhile
+                return;
+            }
+            ArrayDeque<CompletableFuture<Node>> parked = waiting.get(name);
+            while (parked != null && !parked.isEmpty()) {
+                if (parked.poll().complete(node)) {
+                    return;
+                }
+            }
+            waiting.remove(name);
+            semaphore.release();
+        }
+    }
+
+    /**
+     * Drops the slots of a removed node; the polls parked on it give up
+     */
+    void nodeRemoved(String name) {
+        ArrayDeque<CompletableFuture<Node>> parked;
+        synchronized (this) {
+            slots.remove(name);
+            parked = waiting.remove(name);
+        }
+        if (parked != null) {
+            for (CompletableFuture<Node> waiter : parked) {
+                waiter.complete(null);
+            }
+        }
+    }
+
+    /**
+     * @return the number of nodes with polling slots
+     */
+    int getNodeCount() {
+        return slots.size();
+    }
+
+    /**
+     * @return the number of polls parked on the node
+     */
+    synchronized int getWaiting(String name) {
+        ArrayDeque<CompletableFuture<Node>> parked = waiting.get(name);
+        return parked != null ? (int) parked.stream().filter(waiter -> !waiter.isDone()).count() : 0;
+    }
+
+    private Semaphore slotsOf(Node node) {
+        return slots.computeIfAbsent(node.getNodeName(), name -> new Semaphore(maxConcurrentPolls));
+    }
+
+    /**
+     * Drops the slots of the removed and renamed nodes
+     */
+    @Extension
+    public static final class NodeSlotsListener extends NodeListener {
+
+        @Override
+        protected void onUpdated(@NonNull Node oldOne, @NonNull Node newOne) {
+            if (!oldOne.getNodeName().equals(newOne.getNodeName())) {
+                get().nodeRemoved(oldOne.getNodeName());
+            }
+        }
+
+        @Override
+        protected void onDeleted(@NonNull Node node) {
+            get().nodeRemoved(node.getNodeName());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import hudson.Extension;
+import hudson.model.Computer;
+import hudson.model.Node;
+import hudson.model.TaskListener;
+import hudson.slaves.ComputerListener;
+import jenkins.util.SystemProperties;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wakes up the triggers waiting for a polling node when a matching node comes online.
+ * <p>
+ * A trigger which can't find any polling node is parked: its scheduled polls are skipped without scanning the nodes
+ * until a node it can poll on comes online, then it polls right away to capture its first context.
+ * As a safety net against missed events (e.g. label changes), a parked trigger polls again after
+ * {@code org.jenkinsci.plugins.xtriggerapi.XTriggerNodeListener.fallbackMinutes} (15 by default).
+ */
+@Extension
+public class XTriggerNodeListener extends ComputerListener {
+
+    static final long FALLBACK_MILLIS = TimeUnit.MINUTES.toMillis(
+            SystemProperties.getLong(XTriggerNodeListener.class.getName() + ".fallbackMinutes", 15L));
+
+    private static final Set<AbstractTrigger> PARKED = ConcurrentHashMap.newKeySet();
+
+    static void park(AbstractTrigger trigger) {
+        PARKED.add(trigger);
+    }
+
+    static void unpark(AbstractTrigger trigger) {
+        PARKED.remove(trigger);
+    }
+
+    static int getParkedTriggers() {
+        return PARKED.size();
+    }
+
+    @Override
+    public void onOnline(Computer c, TaskListener listener) {
+        Node node = c.getNode();
+        if (node == null || PARKED.isEmpty()) {
+            return;
+        }
+        for (Iterator<AbstractTrigger> it = PARKED.iterator(); it.hasNext(); ) {
+            if (it.next().wakeUpOn(node)) {
+                it.remove();
+            }
+        }
+    }
+}
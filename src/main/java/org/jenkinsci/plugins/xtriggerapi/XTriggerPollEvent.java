@@ -0,0 +1,156 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+/**
+ * Outcome of one poll of an {@link AbstractTrigger}, published to the {@link XTriggerPollListener}s.
+ */
+public final class XTriggerPollEvent {
+
+    public enum Outcome {
+        /**
+         * Changes were found; a build was scheduled or the changes were merged into a waiting build
+         */
+        CHANGES,
+        NO_CHANGES,
+        /**
+         * The check did not run, e.g. no polling node was available
+         */
+        SKIPPED,
+        ERROR
+    }
+
+    private final long timestamp;
+
+    private final String jobName;
+
+    private final String triggerName;
+
+    private final String descriptorId;
+
+    private final String nodeName;
+
+    private final long queueWaitMillis;
+
+    private final long durationMillis;
+
+    private final long checkMillis;
+
+    private final Outcome outcome;
+
+    private final String errorClass;
+
+    private final long cpuNanos;
+
+    private final long bytesSent;
+
+    private final long bytesReceived;
+
+    private final long logBytes;
+
+    XTriggerPollEvent(long timestamp, String jobName, String triggerName, String descriptorId, String nodeName,
+                      long queueWaitMillis, long durationMillis, long checkMillis, Outcome outcome, String errorClass,
+                      XTriggerPollingCost cost) {
+        this.timestamp = timestamp;
+        this.jobName = jobName;
+        this.triggerName = triggerName;
+        this.descriptorId = descriptorId;
+        this.nodeName = nodeName;
+        this.queueWaitMillis = queueWaitMillis;
+        this.durationMillis = durationMillis;
+        this.checkMillis = checkMillis;
+        this.outcome = outcome;
+        this.errorClass = errorClass;
+        this.cpuNanos = cost.getCpuNanos();
+        this.bytesSent = cost.getBytesSent();
+        this.bytesReceived = cost.getBytesReceived();
+        this.logBytes = cost.getLogBytes();
+    }
+
+    /**
+     * @return the end time of the poll in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return the full name of the polled job or folder
+     */
+    public String getJobName() {
+        return jobName;
+    }
+
+    public String getTriggerName() {
+        return triggerName;
+    }
+
+    public String getDescriptorId() {
+        return descriptorId;
+    }
+
+    /**
+     * @return the name of the node the check ran on; null if the poll did not reach a node
+     */
+    public String getNodeName() {
+        return nodeName;
+    }
+
+    /**
+     * @return the time spent in the descriptor queue before the poll started
+     */
+    public long getQueueWaitMillis() {
+        return queueWaitMillis;
+    }
+
+    /**
+     * @return the time from the start of the poll to its end, scheduling included
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * @return the duration of the modification check; -1 if the check did not run
+     */
+    public long getCheckMillis() {
+        return checkMillis;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return the class name of the error ending the poll; null if there was none
+     */
+    public String getErrorClass() {
+        return errorClass;
+    }
+
+    /**
+     * @return the controller CPU time used by the poll
+     */
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    /**
+     * @return the bytes sent to the polling node
+     */
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    /**
+     * @return the bytes of the responses received from the polling node
+     */
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * @return the bytes written to the trigger log
+     */
+    public long getLogBytes() {
+        return logBytes;
+    }
+}
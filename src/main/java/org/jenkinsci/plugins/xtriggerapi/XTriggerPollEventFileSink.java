@@ -0,0 +1,83 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import hudson.Extension;
+import jenkins.util.SystemProperties;
+import net.sf.json.JSONObject;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Appends the poll events to a file, one JSON object per line.
+ * <p>
+ * Disabled unless the {@code org.jenkinsci.plugins.xtriggerapi.XTriggerPollEventFileSink.file} system property
+ * gives the path of the file; while disabled, the poll events are not built at all.
+ */
+@Extension
+public class XTriggerPollEventFileSink extends XTriggerPollListener {
+
+    private static final Logger LOGGER = Logger.getLogger(XTriggerPollEventFileSink.class.getName());
+
+    private static final String FILE = SystemProperties.getString(XTriggerPollEventFileSink.class.getName() + ".file");
+
+    /**
+     * Only used by the dispatching thread
+     */
+    private Writer writer;
+
+    @Override
+    public boolean isEnabled() {
+        return FILE != null;
+    }
+
+    @Override
+    public void onPoll(XTriggerPollEvent event) {
+        try {
+            if (writer == null) {
+                writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FILE, true), StandardCharsets.UTF_8));
+            }
+            writer.write(toJson(event).toString());
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException ioe) {
+            LOGGER.log(Level.WARNING, "Can't write the poll event to " + FILE, ioe);
+            closeQuietly();
+        }
+    }
+
+    static JSONObject toJson(XTriggerPollEvent event) {
+        JSONObject json = new JSONObject();
+        json.put("timestamp", event.getTimestamp());
+        json.put("job", event.getJobName());
+        json.put("trigger", event.getTriggerName());
+        json.put("descriptor", event.getDescriptorId());
+        json.put("node", event.getNodeName());
+        json.put("queueWaitMillis", event.getQueueWaitMillis());
+        json.put("durationMillis", event.getDurationMillis());
+        json.put("checkMillis", event.getCheckMillis());
+        json.put("outcome", event.getOutcome().name());
+        json.put("errorClass", event.getErrorClass());
+        json.put("cpuNanos", event.getCpuNanos());
+        json.put("bytesSent", event.getBytesSent());
+        json.put("bytesReceived", event.getBytesReceived());
+        json.put("logBytes", event.getLogBytes());
+        return json;
+    }
+
+    private void closeQuietly() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+                // the next event opens the file again
+            }
+            writer = null;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.util.SystemProperties;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded queue between the polling threads and the {@link XTriggerPollListener}s.
+ * <p>
+ * Holds up to {@code org.jenkinsci.plugins.xtriggerapi.XTriggerPollEventQueue.capacity} events (10000 by default).
+ */
+final class XTriggerPollEventQueue {
+
+    private static final Logger LOGGER = Logger.getLogger(XTriggerPollEventQueue.class.getName());
+
+    private static final XTriggerPollEventQueue INSTANCE = new XTriggerPollEventQueue(
+            SystemProperties.getInteger(XTriggerPollEventQueue.class.getName() + ".capacity", 10000));
+
+    private final BlockingQueue<XTriggerPollEvent> events;
+
+    private final LongAdder published = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile Thread dispatcher;
+
+    XTriggerPollEventQueue(int capacity) {
+        this.events = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    }
+
+    static XTriggerPollEventQueue get() {
+        return INSTANCE;
+    }
+
+    void offer(XTriggerPollEvent event) {
+        if (events.offer(event)) {
+            published.increment();
+            if (dispatcher == null) {
+                startDispatcher();
+            }
+        } else {
+            dropped.increment();
+        }
+    }
+
+    long getPublished() {
+        return published.sum();
+    }
+
+    long getDropped() {
+        return dropped.sum();
+    }
+
+    private synchronized void startDispatcher() {
+        if (dispatcher == null) {
+            dispatcher = new NamingThreadFactory(new DaemonThreadFactory(), "XTrigger poll events").newThread(this::dispatch);
+            dispatcher.start();
+        }
+    }
+
+    private void dispatch() {
+        while (true) {
+            XTriggerPollEvent event;
+            try {
+                event = events.take();
+            } catch (InterruptedException ie) {
+                synchronized (this) {
+                    dispatcher = null;
+                }
+                return;
+            }
+            for (XTriggerPollListener listener : XTriggerPollListener.all()) {
+                if (!listener.isEnabled()) {
+                    continue;
+                }
+                try {
+                    listener.onPoll(event);
+                } catch (Throwable t) {
+                    LOGGER.log(Level.WARNING, "Poll listener " + listener.getClass().getName() + " failed", t);
+                }
+            }
+        }
+    }
+}
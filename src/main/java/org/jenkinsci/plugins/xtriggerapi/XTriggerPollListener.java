@@ -0,0 +1,48 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import hudson.ExtensionList;
+import hudson.ExtensionPoint;
+
+/**
+ * Receives an {@link XTriggerPollEvent} for each poll of the XTrigger based triggers.
+ * <p>
+ * The events are delivered one at a time on a dedicated thread, never on the polling threads.
+ * They go through a bounded queue: when the listeners don't keep up, the new events are dropped and counted.
+ * No event is built nor queued while no listener is enabled.
+ */
+public abstract class XTriggerPollListener implements ExtensionPoint {
+
+    public abstract void onPoll(XTriggerPollEvent event);
+
+    /**
+     * @return false if this listener ignores the events, e.g. when it is not configured
+     */
+    public boolean isEnabled() {
+        return true;
+    }
+
+    public static ExtensionList<XTriggerPollListener> all() {
+        return ExtensionList.lookup(XTriggerPollListener.class);
+    }
+
+    /**
+     * @return true if an enabled listener receives the events; checked before building an event
+     */
+    static boolean isListened() {
+        for (XTriggerPollListener listener : all()) {
+            if (listener.isEnabled()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Queues the event for the enabled listeners, without waiting
+     */
+    static void fireOnPoll(XTriggerPollEvent event) {
+        if (isListened()) {
+            XTriggerPollEventQueue.get().offer(event);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import jenkins.util.SystemProperties;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue of the polls of one descriptor, served by priority.
+ * <p>
+ * Each submitted poll hands a task to the executor; when it runs, that task takes the
+ * most urgent pending poll rather than the one it was submitted for. A poll waiting longer than
+ * {@code org.jenkinsci.plugins.xtriggerapi.XTriggerPollQueue.maxWaitSeconds} is served
+ * before the higher priority ones, so that the low priority polls are never starved.
+ */
+final class XTriggerPollQueue {
+
+    private static final long MAX_WAIT_MILLIS = TimeUnit.SECONDS.toMillis(
+            SystemProperties.getLong(XTriggerPollQueue.class.getName() + ".maxWaitSeconds", 120L));
+
+    private final Map<XTriggerPriority, ArrayDeque<Entry>> lanes = new EnumMap<>(XTriggerPriority.class);
+
+    private final long maxWaitMillis;
+
+    /**
+     * Number of polls submitted; guarded by this
+     */
+    private long submissions;
+
+    private volatile ExecutorService executor;
+
+    XTriggerPollQueue(ExecutorService executor) {
+        this(executor, MAX_WAIT_MILLIS);
+    }
+
+    XTriggerPollQueue(ExecutorService executor, long maxWaitMillis) {
+        this.executor = executor;
+        this.maxWaitMillis = maxWaitMillis;
+        for (XTriggerPriority priority : XTriggerPriority.values()) {
+            lanes.put(priority, new ArrayDeque<>());
+        }
+    }
+
+    ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Replaces the executor; the previous one is shut down after running the tasks already handed to it
+     */
+    void setExecutor(ExecutorService executor) {
+        ExecutorService previous = this.executor;
+        this.executor = executor;
+        previous.shutdown();
+    }
+
+    void submit(Runnable poll, XTriggerPriority priority) {
+        synchronized (this) {
+            lanes.get(priority).add(new Entry(poll, System.currentTimeMillis(), submissions++));
+        }
+        executor.execute(this::runNext);
+    }
+
+    /**
+     * Removes all the pending polls
+     *
+     * @return the removed polls, which will not be run
+     */
+    synchronized List<Runnable> cancelPending() {
+        List<Runnable> result = new ArrayList<>();
+        for (ArrayDeque<Entry> lane : lanes.values()) {
+            for (Entry entry : lane) {
+                result.add(entry.poll);
+            }
+            lane.clear();
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of pending polls of the given priority
+     */
+    synchronized int size(XTriggerPriority priority) {
+        return lanes.get(priority).size();
+    }
+
+    private void runNext() {
+        Entry entry = next();
+        if (entry != null) {
+            entry.poll.run();
+        }
+    }
+
+    private synchronized Entry next() {
+        long now = System.currentTimeMillis();
+        ArrayDeque<Entry> starving = null;
+        for (ArrayDeque<Entry> lane : lanes.values()) {
+            Entry head = lane.peek();
+            if (head != null && now - head.submitted >= maxWaitMillis
+                    && (starving == null || head.sequence < starving.peek().sequence)) {
+                starving = lane;
+            }
+        }
+        if (starving != null) {
+            return starving.poll();
+        }
+        for (ArrayDeque<Entry> lane : lanes.values()) {
+            if (!lane.isEmpty()) {
+                return lane.poll();
+            }
+        }
+        return null;
+    }
+
+    private static final class Entry {
+
+        private final Runnable poll;
+
+        private final long submitted;
+
+        private final long sequence;
+
+        Entry(Runnable poll, long submitted, long sequence) {
+            this.poll = poll;
+            this.submitted = submitted;
+            this.sequence = sequence;
+        }
+    }
+}
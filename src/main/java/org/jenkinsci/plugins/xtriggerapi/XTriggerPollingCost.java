@@ -0,0 +1,249 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.Computer;
+import hudson.model.Node;
+import hudson.model.TaskListener;
+import hudson.remoting.Channel;
+import hudson.remoting.Command;
+import hudson.remoting.Request;
+import hudson.remoting.Response;
+import hudson.remoting.VirtualChannel;
+import hudson.slaves.ComputerListener;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resources used by one poll: controller CPU time, remoting traffic with the polling node and trigger log writes.
+ * <p>
+ * The CPU time is the one of the polling threads running the steps of the poll.
+ * The bytes sent are the commands written to the node channel by the polling thread while it starts the check.
+ * The bytes received are the responses to the requests among those commands; the other traffic of the channel,
+ * such as the streams of the remote files, is not counted.
+ * The remote calls made by an asynchronous check from other threads are not counted.
+ */
+final class XTriggerPollingCost {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private static final ThreadLocal<XTriggerPollingCost> CURRENT = new ThreadLocal<>();
+
+    private static final ConcurrentMap<Channel, ChannelTraffic> CHANNELS = new ConcurrentHashMap<>();
+
+    private volatile long cpuNanos;
+
+    private volatile long bytesSent;
+
+    private volatile long bytesReceived;
+
+    private volatile long logBytes;
+
+    private ChannelTraffic channelTraffic;
+
+    /**
+     * The traffic of the channel while the polling thread starts the check
+     */
+    private ChannelTraffic writingTraffic;
+
+    long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    long getBytesSent() {
+        return bytesSent;
+    }
+
+    long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    long getLogBytes() {
+        return logBytes;
+    }
+
+    /**
+     * @return the CPU time of the current thread in nanoseconds; -1 if it is not measured by the JVM
+     */
+    static long threadCpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * Adds the CPU time of the current thread since the given {@link #threadCpuTime()}
+     */
+    void addCpuSince(long start) {
+        long end = threadCpuTime();
+        if (start >= 0 && end >= start) {
+            cpuNanos += end - start;
+        }
+    }
+
+    void addLogBytes(long bytes) {
+        logBytes += bytes;
+    }
+
+    /**
+     * Adds the size of a response; the responses are counted by the polling thread and the channel reader thread
+     */
+    private synchronized void addBytesReceived(long bytes) {
+        bytesReceived += bytes;
+    }
+
+    /**
+     * Starts counting the remoting traffic of a check on the node; the current thread is the polling thread
+     */
+    void beginCheck(Node node) {
+        CURRENT.set(this);
+        VirtualChannel channel = node.getChannel();
+        if (channel instanceof Channel) {
+            channelTraffic = CHANNELS.get(channel);
+            writingTraffic = channelTraffic;
+            if (writingTraffic != null) {
+                writingTraffic.writing.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Stops attributing the commands written by the current thread; the check may still be running elsewhere
+     */
+    void detachCheck() {
+        CURRENT.remove();
+        if (writingTraffic != null) {
+            writingTraffic.detached();
+            writingTraffic = null;
+        }
+    }
+
+    /**
+     * Ends the counting of the check once it has completed
+     */
+    void endCheck() {
+        if (channelTraffic != null) {
+            // the requests left unanswered
+            channelTraffic.forget(this);
+            channelTraffic = null;
+        }
+    }
+
+    private static final class ChannelTraffic {
+
+        /**
+         * Pending requests written by the polls, with their poll.
+         * A compute on the request also guards its entry in {@link #earlyAnswered}.
+         */
+        private final ConcurrentMap<Request<?, ?>, XTriggerPollingCost> requests = new ConcurrentHashMap<>();
+
+        /**
+         * Requests answered before being reported as written, with the size of their response.
+         * Only recorded while a polling thread starts a check, since the write of a request is reported by its thread.
+         */
+        private final ConcurrentMap<Request<?, ?>, Long> earlyAnswered = new ConcurrentHashMap<>();
+
+        /**
+         * Number of polling threads starting a check on the channel
+         */
+        private final AtomicInteger writing = new AtomicInteger();
+
+        /**
+         * Last response read on the channel and its size; a response is read then executed by the same thread
+         */
+        private volatile Response<?, ?> lastResponse;
+
+        private volatile long lastResponseSize;
+
+        void written(Command cmd, long blockSize) {
+            XTriggerPollingCost cost = CURRENT.get();
+            if (cost == null || cost.channelTraffic != this) {
+                return;
+            }
+            cost.bytesSent += blockSize;
+            if (cmd instanceof Request) {
+                requests.compute((Request<?, ?>) cmd, (req, pending) -> {
+                    // a write is reported once sent, possibly after its response
+                    Long size = earlyAnswered.remove(req);
+                    if (size != null) {
+                        cost.addBytesReceived(size);
+                        return null;
+                    }
+                    return cost;
+                });
+            }
+        }
+
+        void read(Command cmd, long blockSize) {
+            if (cmd instanceof Response) {
+                lastResponseSize = blockSize;
+                lastResponse = (Response<?, ?>) cmd;
+            }
+        }
+
+        void answered(Request<?, ?> req, Response<?, ?> rsp) {
+            if (requests.isEmpty() && writing.get() == 0) {
+                return;
+            }
+            long size = rsp == lastResponse ? lastResponseSize : 0;
+            requests.compute(req, (r, cost) -> {
+                if (cost != null) {
+                    cost.addBytesReceived(size);
+                } else if (writing.get() > 0) {
+                    earlyAnswered.put(r, size);
+                }
+                return null;
+            });
+        }
+
+        /**
+         * Drops the early answers once no polling thread is left to claim them
+         */
+        void detached() {
+            if (writing.decrementAndGet() == 0) {
+                earlyAnswered.clear();
+            }
+        }
+
+        void forget(XTriggerPollingCost cost) {
+            requests.values().removeIf(pending -> pending == cost);
+        }
+    }
+
+    /**
+     * Watches the traffic of the agent channels
+     */
+    @Extension
+    public static final class ChannelWatcher extends ComputerListener {
+
+        @Override
+        public void preOnline(Computer c, Channel channel, FilePath root, TaskListener listener) {
+            ChannelTraffic traffic = new ChannelTraffic();
+            CHANNELS.put(channel, traffic);
+            channel.addListener(new Channel.Listener() {
+                @Override
+                public void onWrite(Channel channel, Command cmd, long blockSize) {
+                    traffic.written(cmd, blockSize);
+                }
+
+                @Override
+                public void onRead(Channel channel, Command cmd, long blockSize) {
+                    traffic.read(cmd, blockSize);
+                }
+
+                @Override
+                public void onResponse(Channel channel, Request<?, ?> req, Response<?, ?> rsp, long totalTime) {
+                    traffic.answered(req, rsp);
+                }
+
+                @Override
+                public void onClosed(Channel channel, IOException cause) {
+                    CHANNELS.remove(channel);
+                }
+            });
+        }
+    }
+}
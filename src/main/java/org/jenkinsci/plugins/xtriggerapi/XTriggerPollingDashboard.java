@@ -0,0 +1,227 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.model.Api;
+import hudson.model.ManagementLink;
+import hudson.security.Permission;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.StaplerProxy;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Controller-wide view of the polling activity of all XTrigger based triggers.
+ * <p>
+ * Available as a management page and through the remote API
+ * ({@code /manage/xtrigger-polling/api/json}).
+ */
+@Extension
+@ExportedBean
+public class XTriggerPollingDashboard extends ManagementLink implements StaplerProxy {
+
+    /**
+     * Number of entries displayed in each ranking
+     */
+    static final int TOP_SIZE = 10;
+
+    @Override
+    public String getIconFileName() {
+        return "symbol-analytics";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "xtrigger-polling";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "XTrigger Polling";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Polling backlog, slowest and failing jobs of the XTrigger based triggers.";
+    }
+
+    @NonNull
+    @Override
+    public Category getCategory() {
+        return Category.STATUS;
+    }
+
+    @NonNull
+    @Override
+    public Permission getRequiredPermission() {
+        return Jenkins.SYSTEM_READ;
+    }
+
+    @Override
+    public Object getTarget() {
+        Jenkins.get().checkPermission(Jenkins.SYSTEM_READ);
+        return this;
+    }
+
+    @SuppressWarnings("unused")
+    public Api getApi() {
+        return new Api(this);
+    }
+
+    /**
+     * Gets the polling summary of each registered XTrigger descriptor
+     *
+     * @return the summaries, the busiest trigger type first
+     */
+    @Exported(name = "triggers", inline = true)
+    public List<TriggerSummary> getTriggers() {
+        List<TriggerSummary> result = new ArrayList<>();
+        for (XTriggerDescriptor descriptor : XTriggerDescriptor.all()) {
+            result.add(new TriggerSummary(descriptor));
+        }
+        result.sort(Comparator.comparingInt(TriggerSummary::getQueueDepth).reversed());
+        return result;
+    }
+
+    /**
+     * Gets the number of triggers waiting for a polling node to come online
+     */
+    @Exported
+    public int getTriggersWaitingForNode() {
+        return XTriggerNodeListener.getParkedTriggers();
+    }
+
+    /**
+     * Gets the memory use of the trigger contexts
+     */
+    @Exported(inline = true)
+    public XTriggerContextStore getContextStore() {
+        return XTriggerContextStore.get();
+    }
+
+    /**
+     * Gets the number of poll events queued for the {@link XTriggerPollListener}s since startup
+     */
+    @Exported
+    public long getPublishedPollEvents() {
+        return XTriggerPollEventQueue.get().getPublished();
+    }
+
+    /**
+     * Gets the number of poll events dropped because the {@link XTriggerPollListener}s did not keep up
+     */
+    @Exported
+    public long getDroppedPollEvents() {
+        return XTriggerPollEventQueue.get().getDropped();
+    }
+
+    /**
+     * Gets the reuse of the contexts captured for other jobs
+     */
+    @Exported(inline = true)
+    public XTriggerContextCache getContextCache() {
+        return XTriggerContextCache.get();
+    }
+
+    @ExportedBean(defaultVisibility = 2)
+    public static final class TriggerSummary {
+
+        private final XTriggerDescriptor descriptor;
+
+        private final XTriggerPollingStatistics statistics;
+
+        TriggerSummary(XTriggerDescriptor descriptor) {
+            this.descriptor = descriptor;
+            this.statistics = descriptor.getStatistics();
+        }
+
+        @Exported
+        public String getId() {
+            return descriptor.getId();
+        }
+
+        @Exported
+        public String getDisplayName() {
+            return descriptor.getDisplayName();
+        }
+
+        @Exported
+        public int getQueueDepth() {
+            return statistics.getQueueDepth();
+        }
+
+        @Exported
+        public int getHighPriorityQueueDepth() {
+            return descriptor.getQueueDepth(XTriggerPriority.HIGH);
+        }
+
+        @Exported
+        public int getLowPriorityQueueDepth() {
+            return descriptor.getQueueDepth(XTriggerPriority.LOW);
+        }
+
+        @Exported
+        public int getInFlight() {
+            return statistics.getInFlight();
+        }
+
+        @Exported
+        public long getPolls() {
+            return statistics.getPolls();
+        }
+
+        @Exported
+        public long getFailures() {
+            return statistics.getFailures();
+        }
+
+        @Exported(inline = true)
+        public List<XTriggerPollingStatistics.JobSummary> getSlowestJobs() {
+            return statistics.getSlowestJobs(TOP_SIZE);
+        }
+
+        @Exported(inline = true)
+        public List<XTriggerPollingStatistics.JobSummary> getFailingJobs() {
+            return statistics.getFailingJobs(TOP_SIZE);
+        }
+
+        @Exported
+        public long getCpuMillis() {
+            return statistics.getCpuMillis();
+        }
+
+        @Exported
+        public long getBytesSent() {
+            return statistics.getBytesSent();
+        }
+
+        @Exported
+        public long getBytesReceived() {
+            return statistics.getBytesReceived();
+        }
+
+        @Exported
+        public long getLogBytes() {
+            return statistics.getLogBytes();
+        }
+
+        @Exported(inline = true)
+        public List<XTriggerPollingStatistics.JobSummary> getCpuHeaviestJobs() {
+            return statistics.getCpuHeaviestJobs(TOP_SIZE);
+        }
+
+        @Exported(inline = true)
+        public List<XTriggerPollingStatistics.JobSummary> getRemotingHeaviestJobs() {
+            return statistics.getRemotingHeaviestJobs(TOP_SIZE);
+        }
+
+        @Exported(inline = true)
+        public List<XTriggerPollingStatistics.NodeSummary> getBusiestNodes() {
+            return statistics.getBusiestNodes(TOP_SIZE);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import hudson.util.StreamTaskListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+/**
+ * In-memory log of a poll, written to the trigger log file only when needed.
+ * <p>
+ * The buffer and its listener are confined to the polling thread and reused from one poll to the next,
+ * unless the poll is detached from the thread to complete asynchronously.
+ * The content over the {@link XTriggerLogRetention} size limit is dropped as it is written.
+ */
+final class XTriggerPollingLog {
+
+    /**
+     * A buffer grown above this capacity by a large log is dropped instead of being kept for the next poll
+     */
+    private static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+    private static final ThreadLocal<XTriggerPollingLog> LOGS = ThreadLocal.withInitial(XTriggerPollingLog::new);
+
+    private final Buffer buffer = new Buffer();
+
+    private final XTriggerLog log = new XTriggerLog(new StreamTaskListener(buffer, Charset.defaultCharset()));
+
+    private volatile boolean detached;
+
+    private XTriggerPollingLog() {
+    }
+
+    /**
+     * Gets the empty log of the current thread
+     */
+    static XTriggerPollingLog acquire() {
+        XTriggerPollingLog pollingLog = LOGS.get();
+        pollingLog.buffer.reset();
+        return pollingLog;
+    }
+
+    XTriggerLog getLog() {
+        return log;
+    }
+
+    String getContent() {
+        log.getListener().getLogger().flush();
+        return buffer.getContent();
+    }
+
+    /**
+     * Replaces the content of the file with the log
+     *
+     * @return the number of bytes written
+     */
+    long writeTo(File file) throws IOException {
+        log.getListener().getLogger().flush();
+        try (OutputStream out = new FileOutputStream(file)) {
+            return buffer.writeContentTo(out);
+        }
+    }
+
+    /**
+     * Hands the log over to a poll going on without the current thread;
+     * the next poll of the thread gets a new log
+     */
+    void detach() {
+        detached = true;
+        LOGS.remove();
+    }
+
+    /**
+     * Ends the use of the log by the current thread
+     */
+    void release() {
+        if (!detached && buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            LOGS.remove();
+        }
+    }
+
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        /**
+         * Number of bytes dropped over the size limit
+         */
+        private long dropped;
+
+        Buffer() {
+            super(4096);
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            if (count < XTriggerLogRetention.MAX_LOG_BYTES) {
+                super.write(b);
+            } else {
+                dropped++;
+            }
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            int kept = (int) Math.max(0, Math.min(len, XTriggerLogRetention.MAX_LOG_BYTES - count));
+            super.write(b, off, kept);
+            dropped += len - kept;
+        }
+
+        @Override
+        public synchronized void reset() {
+            super.reset();
+            dropped = 0;
+        }
+
+        synchronized String getContent() {
+            String content = toString(Charset.defaultCharset());
+            if (dropped > 0) {
+                content += new String(XTriggerLogRetention.truncationMarker(dropped), Charset.defaultCharset());
+            }
+            return content;
+        }
+
+        synchronized long writeContentTo(OutputStream out) throws IOException {
+            writeTo(out);
+            long written = count;
+            if (dropped > 0) {
+                byte[] marker = XTriggerLogRetention.truncationMarker(dropped);
+                out.write(marker);
+                written += marker.length;
+            }
+            return written;
+        }
+
+        synchronized int capacity() {
+            return buf.length;
+        }
+    }
+}
@@ -0,0 +1,448 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.Node;
+import hudson.model.listeners.ItemListener;
+import jenkins.model.NodeListener;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Polling counters of one {@link XTriggerDescriptor}.
+ * <p>
+ * Updated by the asynchronous polling task of {@link AbstractTrigger};
+ * each update is a few atomic operations so it can stay on the polling path.
+ * The counters of the deleted jobs and nodes are dropped, the ones of the renamed jobs and nodes follow them.
+ */
+public final class XTriggerPollingStatistics {
+
+    /**
+     * Number of last check durations kept per job for the percentile computation
+     */
+    private static final int SAMPLE_SIZE = 64;
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder polls = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    private final LongAdder cpuNanos = new LongAdder();
+
+    private final LongAdder bytesSent = new LongAdder();
+
+    private final LongAdder bytesReceived = new LongAdder();
+
+    private final LongAdder logBytes = new LongAdder();
+
+    private final ConcurrentMap<String, JobStatistics> jobs = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, LongAdder> nodes = new ConcurrentHashMap<>();
+
+    void pollQueued() {
+        queued.incrementAndGet();
+    }
+
+    void pollCancelled() {
+        queued.decrementAndGet();
+    }
+
+    void pollStarted() {
+        queued.decrementAndGet();
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Records a finished poll
+     *
+     * @param jobName        the full name of the polled job
+     * @param nodeName       the node name the check ran on; null if the poll did not reach a node
+     * @param checkMillis    the duration of the modification check; negative if the check did not run
+     * @param failed         true if the poll ended with an error
+     * @param cost           the resources used by the poll
+     */
+    void pollCompleted(String jobName, String nodeName, long checkMillis, boolean failed, XTriggerPollingCost cost) {
+        inFlight.decrementAndGet();
+        polls.increment();
+        if (failed) {
+            failures.increment();
+        }
+        cpuNanos.add(cost.getCpuNanos());
+        bytesSent.add(cost.getBytesSent());
+        bytesReceived.add(cost.getBytesReceived());
+        logBytes.add(cost.getLogBytes());
+        if (jobName != null) {
+            jobs.computeIfAbsent(jobName, k -> new JobStatistics()).record(checkMillis, failed, cost);
+        }
+        if (nodeName != null) {
+            nodes.computeIfAbsent(nodeName, k -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Moves the counters of a renamed or moved job
+     */
+    void jobRenamed(String oldFullName, String newFullName) {
+        JobStatistics statistics = jobs.remove(oldFullName);
+        if (statistics != null) {
+            jobs.put(newFullName, statistics);
+        }
+    }
+
+    /**
+     * Drops the counters of a deleted job, or of a deleted folder and its jobs
+     */
+    void jobDeleted(String fullName) {
+        String prefix = fullName + "/";
+        jobs.keySet().removeIf(name -> name.equals(fullName) || name.startsWith(prefix));
+    }
+
+    void nodeRenamed(String oldName, String newName) {
+        LongAdder polls = nodes.remove(oldName);
+        if (polls != null) {
+            nodes.put(newName, polls);
+        }
+    }
+
+    void nodeDeleted(String nodeName) {
+        nodes.remove(nodeName);
+    }
+
+    public int getQueueDepth() {
+        return Math.max(0, queued.get());
+    }
+
+    public int getInFlight() {
+        return Math.max(0, inFlight.get());
+    }
+
+    public long getPolls() {
+        return polls.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * @return the controller CPU time used by the polls, in milliseconds
+     */
+    public long getCpuMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(cpuNanos.sum());
+    }
+
+    /**
+     * @return the bytes sent to the polling nodes
+     */
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    /**
+     * @return the bytes of the responses received from the polling nodes
+     */
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * @return the bytes written to the trigger logs
+     */
+    public long getLogBytes() {
+        return logBytes.sum();
+    }
+
+    /**
+     * Gets the jobs with the highest 95th percentile check duration
+     *
+     * @param limit the maximum number of entries
+     * @return the jobs, slowest first
+     */
+    public List<JobSummary> getSlowestJobs(int limit) {
+        List<JobSummary> result = summarizeJobs();
+        result.removeIf(summary -> summary.getP95CheckMillis() < 0);
+        result.sort(Comparator.comparingLong(JobSummary::getP95CheckMillis).reversed());
+        return truncate(result, limit);
+    }
+
+    /**
+     * Gets the jobs with the highest number of failed polls
+     *
+     * @param limit the maximum number of entries
+     * @return the jobs, most failing first
+     */
+    public List<JobSummary> getFailingJobs(int limit) {
+        List<JobSummary> result = summarizeJobs();
+        result.removeIf(summary -> summary.getFailures() == 0);
+        result.sort(Comparator.comparingLong(JobSummary::getFailures).reversed());
+        return truncate(result, limit);
+    }
+
+    /**
+     * Gets the jobs whose polls used the most controller CPU time
+     *
+     * @param limit the maximum number of entries
+     * @return the jobs, heaviest first
+     */
+    public List<JobSummary> getCpuHeaviestJobs(int limit) {
+        List<JobSummary> result = summarizeJobs();
+        result.removeIf(summary -> summary.getCpuMillis() == 0);
+        result.sort(Comparator.comparingLong(JobSummary::getCpuMillis).reversed());
+        return truncate(result, limit);
+    }
+
+    /**
+     * Gets the jobs whose polls exchanged the most bytes with the polling nodes
+     *
+     * @param limit the maximum number of entries
+     * @return the jobs, heaviest first
+     */
+    public List<JobSummary> getRemotingHeaviestJobs(int limit) {
+        List<JobSummary> result = summarizeJobs();
+        result.removeIf(summary -> summary.getRemotingBytes() == 0);
+        result.sort(Comparator.comparingLong(JobSummary::getRemotingBytes).reversed());
+        return truncate(result, limit);
+    }
+
+    /**
+     * Gets the nodes having run the highest number of polls
+     *
+     * @param limit the maximum number of entries
+     * @return the nodes, busiest first
+     */
+    public List<NodeSummary> getBusiestNodes(int limit) {
+        List<NodeSummary> result = new ArrayList<>();
+        for (Map.Entry<String, LongAdder> entry : nodes.entrySet()) {
+            result.add(new NodeSummary(entry.getKey(), entry.getValue().sum()));
+        }
+        result.sort(Comparator.comparingLong(NodeSummary::getPolls).reversed());
+        return truncate(result, limit);
+    }
+
+    private List<JobSummary> summarizeJobs() {
+        List<JobSummary> result = new ArrayList<>();
+        for (Map.Entry<String, JobStatistics> entry : jobs.entrySet()) {
+            result.add(entry.getValue().summarize(entry.getKey()));
+        }
+        return result;
+    }
+
+    private static <T> List<T> truncate(List<T> list, int limit) {
+        if (list.size() > limit) {
+            return new ArrayList<>(list.subList(0, limit));
+        }
+        return list;
+    }
+
+    /**
+     * Keeps the job counters of all the XTrigger descriptors in line with the items
+     */
+    @Extension
+    public static final class JobListener extends ItemListener {
+
+        @Override
+        public void onDeleted(Item item) {
+            for (XTriggerDescriptor descriptor : XTriggerDescriptor.all()) {
+                descriptor.getStatistics().jobDeleted(item.getFullName());
+            }
+        }
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            for (XTriggerDescriptor descriptor : XTriggerDescriptor.all()) {
+                descriptor.getStatistics().jobRenamed(oldFullName, newFullName);
+            }
+        }
+    }
+
+    /**
+     * Keeps the node counters of all the XTrigger descriptors in line with the nodes
+     */
+    @Extension
+    public static final class NodeStatisticsListener extends NodeListener {
+
+        @Override
+        protected void onUpdated(@NonNull Node oldOne, @NonNull Node newOne) {
+            if (!oldOne.getNodeName().equals(newOne.getNodeName())) {
+                for (XTriggerDescriptor descriptor : XTriggerDescriptor.all()) {
+                    descriptor.getStatistics().nodeRenamed(oldOne.getNodeName(), newOne.getNodeName());
+                }
+            }
+        }
+
+        @Override
+        protected void onDeleted(@NonNull Node node) {
+            for (XTriggerDescriptor descriptor : XTriggerDescriptor.all()) {
+                descriptor.getStatistics().nodeDeleted(node.getNodeName());
+            }
+        }
+    }
+
+    private static final class JobStatistics {
+
+        private final long[] samples = new long[SAMPLE_SIZE];
+
+        private int nbSamples;
+
+        private int next;
+
+        private long polls;
+
+        private long failures;
+
+        private long cpuNanos;
+
+        private long bytesSent;
+
+        private long bytesReceived;
+
+        private long logBytes;
+
+        synchronized void record(long checkMillis, boolean failed, XTriggerPollingCost cost) {
+            polls++;
+            if (failed) {
+                failures++;
+            }
+            cpuNanos += cost.getCpuNanos();
+            bytesSent += cost.getBytesSent();
+            bytesReceived += cost.getBytesReceived();
+            logBytes += cost.getLogBytes();
+            if (checkMillis >= 0) {
+                samples[next] = checkMillis;
+                next = (next + 1) % SAMPLE_SIZE;
+                nbSamples = Math.min(nbSamples + 1, SAMPLE_SIZE);
+            }
+        }
+
+        synchronized JobSummary summarize(String jobName) {
+            long p95 = -1;
+            if (nbSamples > 0) {
+                long[] sorted = Arrays.copyOf(samples, nbSamples);
+                Arrays.sort(sorted);
+                p95 = sorted[(int) Math.ceil(0.95 * nbSamples) - 1];
+            }
+            return new JobSummary(jobName, polls, failures, p95,
+                    TimeUnit.NANOSECONDS.toMillis(cpuNanos), bytesSent, bytesReceived, logBytes);
+        }
+    }
+
+    @ExportedBean(defaultVisibility = 2)
+    public static final class JobSummary {
+
+        private final String jobName;
+
+        private final long polls;
+
+        private final long failures;
+
+        private final long p95CheckMillis;
+
+        private final long cpuMillis;
+
+        private final long bytesSent;
+
+        private final long bytesReceived;
+
+        private final long logBytes;
+
+        JobSummary(String jobName, long polls, long failures, long p95CheckMillis,
+                   long cpuMillis, long bytesSent, long bytesReceived, long logBytes) {
+            this.jobName = jobName;
+            this.polls = polls;
+            this.failures = failures;
+            this.p95CheckMillis = p95CheckMillis;
+            this.cpuMillis = cpuMillis;
+            this.bytesSent = bytesSent;
+            this.bytesReceived = bytesReceived;
+            this.logBytes = logBytes;
+        }
+
+        @Exported
+        public String getJobName() {
+            return jobName;
+        }
+
+        @Exported
+        public long getPolls() {
+            return polls;
+        }
+
+        @Exported
+        public long getFailures() {
+            return failures;
+        }
+
+        /**
+         * @return the 95th percentile of the last check durations in milliseconds; -1 if no check ran yet
+         */
+        @Exported
+        public long getP95CheckMillis() {
+            return p95CheckMillis;
+        }
+
+        @Exported
+        public long getCpuMillis() {
+            return cpuMillis;
+        }
+
+        @Exported
+        public long getBytesSent() {
+            return bytesSent;
+        }
+
+        /**
+         * @return the bytes of the responses received from the polling nodes
+         */
+        @Exported
+        public long getBytesReceived() {
+            return bytesReceived;
+        }
+
+        public long getRemotingBytes() {
+            return bytesSent + bytesReceived;
+        }
+
+        @Exported
+        public long getLogBytes() {
+            return logBytes;
+        }
+    }
+
+    @ExportedBean(defaultVisibility = 2)
+    public static final class NodeSummary {
+
+        private final String nodeName;
+
+        private final long polls;
+
+        NodeSummary(String nodeName, long polls) {
+            this.nodeName = nodeName;
+            this.polls = polls;
+        }
+
+        @Exported
+        public String getNodeName() {
+            return nodeName;
+        }
+
+        @Exported
+        public long getPolls() {
+            return polls;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+/**
+ * Priority of the polls of a trigger in the queue of its descriptor.
+ */
+public enum XTriggerPriority {
+
+    HIGH("High"),
+
+    NORMAL("Normal"),
+
+    LOW("Low");
+
+    private final String displayName;
+
+    XTriggerPriority(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
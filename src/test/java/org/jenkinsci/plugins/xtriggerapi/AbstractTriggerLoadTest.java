@@ -0,0 +1,72 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import hudson.model.FreeStyleProject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+/**
+ * Runs many synthetic polls through the real polling pipeline and reports the throughput.
+ * <p>
+ * Excluded from the default build; run with {@code mvn -P load-test test}.
+ */
+@Tag("load")
+@WithJenkins
+class AbstractTriggerLoadTest {
+
+    private static final int JOBS = 20;
+
+    private static final int TRIGGERS = 2000;
+
+    private static final int THREADS = 8;
+
+    @AfterEach
+    void restoreExecutor() {
+        new TestTrigger().getDescriptor().setExecutor(Executors.newSingleThreadExecutor());
+    }
+
+    @Test
+    void pollManyTriggers(JenkinsRule j, TestReporter reporter) throws Exception {
+        List<FreeStyleProject> projects = new ArrayList<>();
+        for (int i = 0; i < JOBS; i++) {
+            projects.add(j.createFreeStyleProject());
+        }
+        List<TestTrigger> triggers = new ArrayList<>();
+        for (int i = 0; i < TRIGGERS; i++) {
+            TestTrigger trigger = new TestTrigger();
+            trigger.start(projects.get(i % JOBS), true);
+            triggers.add(trigger);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        triggers.get(0).getDescriptor().setExecutor(executor);
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Boolean>> polls = new ArrayList<>();
+        for (TestTrigger trigger : triggers) {
+            polls.add(trigger.poll());
+        }
+        CompletableFuture.allOf(polls.toArray(new CompletableFuture[0])).get(5, TimeUnit.MINUTES);
+        long elapsedNanos = System.nanoTime() - start;
+
+        for (CompletableFuture<Boolean> poll : polls) {
+            assertFalse(poll.join());
+        }
+        assertEquals(0, triggers.get(0).getDescriptor().getStatistics().getInFlight());
+        reporter.publishEntry("throughput", String.format("%d polls on %d threads in %d ms: %.0f polls/s", TRIGGERS, THREADS,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), TRIGGERS / (elapsedNanos / 1e9)));
+    }
+}
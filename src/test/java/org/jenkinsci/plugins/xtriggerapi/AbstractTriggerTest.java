@@ -23,12 +23,34 @@
  */
 package org.jenkinsci.plugins.xtriggerapi;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import hudson.model.FreeStyleBuild;
 import hudson.model.FreeStyleProject;
+import hudson.model.Job;
+import hudson.model.Node;
+import hudson.model.ParametersAction;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.Queue;
+import hudson.model.StringParameterDefinition;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.MockFolder;
+import org.jvnet.hudson.test.TestExtension;
 import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
 
 @WithJenkins
@@ -40,14 +62,215 @@ class AbstractTriggerTest {
         j.createOnlineSlave();
 
         FreeStyleProject p = j.createFreeStyleProject();
-        TestTrigger trigger = new TestTrigger();
-        p.addTrigger(trigger);
+        TestTrigger trigger = addTriggeredTrigger(p);
+
+        assertTrue(trigger.poll().get(60, TimeUnit.SECONDS), trigger.getLog());
+        j.waitUntilNoActivity();
+
+        assertTrue(p.getBuilds().stream().count() > 0);
+    }
+
+    @Test
+    void writeTriggerLogInBuildDirectory(JenkinsRule j) throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+        TestTrigger trigger = addTriggeredTrigger(p);
+
+        assertTrue(trigger.poll().get(60, TimeUnit.SECONDS), trigger.getLog());
+        j.waitUntilNoActivity();
+
+        FreeStyleBuild build = p.getLastBuild();
+        assertNotNull(build);
+        XTriggerCauseAction causeAction = build.getAction(XTriggerCauseAction.class);
+        assertNotNull(causeAction);
+        assertNull(causeAction.getLogMessage());
+        assertTrue(causeAction.getLog().contains("Changes found"), causeAction.getLog());
+    }
+
+    @Test
+    void scheduleParameterizedJobWithDefaultValues(JenkinsRule j) throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+        p.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("PARAM", "default value")));
+        TestTrigger trigger = addTriggeredTrigger(p);
+
+        assertTrue(trigger.poll().get(60, TimeUnit.SECONDS), trigger.getLog());
+        j.waitUntilNoActivity();
+
+        FreeStyleBuild build = p.getLastBuild();
+        assertNotNull(build);
+        assertEquals("default value", build.getAction(ParametersAction.class).getParameter("PARAM").getValue());
+        assertTrue(trigger.getLog().contains("Scheduled a build of " + p.getFullDisplayName()), trigger.getLog());
+    }
+
+    @Test
+    void mergeIntoQueuedBuild(JenkinsRule j) throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+        TestTrigger trigger = addTriggeredTrigger(p);
+        assertNotNull(p.scheduleBuild2(600));
+        Queue.Item queued = j.jenkins.getQueue().getItem(p);
+        assertNotNull(queued);
+
+        assertTrue(trigger.poll().get(60, TimeUnit.SECONDS), trigger.getLog());
+        assertTrue(trigger.getLog().contains("A build of " + p.getFullDisplayName() + " is already queued (queue item #" + queued.getId() + ")"),
+                trigger.getLog());
+        j.waitUntilNoActivity();
+
+        assertEquals(1, p.getBuilds().size());
+    }
+
+    @Test
+    void mergeChangesInDebounceWindow(JenkinsRule j) throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+        TestTrigger trigger = addTriggeredTrigger(p);
+        trigger.setDebounceSeconds(600);
+
+        assertTrue(trigger.poll().get(60, TimeUnit.SECONDS), trigger.getLog());
+        assertTrue(trigger.poll().get(60, TimeUnit.SECONDS), trigger.getLog());
+        assertTrue(trigger.getLog().contains("merging the changes into it"), trigger.getLog());
+        assertEquals(1, j.jenkins.getQueue().getItems().length);
+
+        // end the debounce window
+        assertNotNull(p.scheduleBuild2(0));
+        j.waitUntilNoActivity();
+
+        FreeStyleBuild build = p.getLastBuild();
+        assertNotNull(build);
+        assertEquals(1, p.getBuilds().size());
+        assertEquals(2, build.getCause(XTriggerCause.class).getNbChanges());
+        j.assertLogContains("[2 changes]", build);
+        String triggerLog = build.getAction(XTriggerCauseAction.class).getLog();
+        assertTrue(triggerLog.contains("merging the changes into it"), triggerLog);
+    }
+
+    @Test
+    void pollWhenNodeComesOnline(JenkinsRule j) throws Exception {
+        j.jenkins.setNumExecutors(0);
+
+        FreeStyleProject p = j.createFreeStyleProject();
+        TestTrigger trigger = addTriggeredTrigger(p);
+        assertFalse(trigger.poll().get(60, TimeUnit.SECONDS));
+
+        j.createOnlineSlave();
+        assertTrue(trigger.getChangesFound().get(60, TimeUnit.SECONDS), trigger.getLog());
+        j.waitUntilNoActivity();
+
+        assertFalse(p.getBuilds().isEmpty(), trigger.getLog());
+    }
+
+    @Test
+    void releasePollingThreadDuringAsynchronousCheck(JenkinsRule j) throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+        AsyncTestTrigger trigger = addTrigger(p, new AsyncTestTrigger());
+
+        FreeStyleProject other = j.createFreeStyleProject();
+        TestTrigger otherTrigger = addTrigger(other, new TestTrigger());
+
+        CompletableFuture<Boolean> poll = trigger.poll();
+        assertFalse(otherTrigger.poll().get(60, TimeUnit.SECONDS), otherTrigger.getLog());
+        assertFalse(poll.isDone());
+
+        trigger.check.complete(true);
+        assertTrue(poll.get(60, TimeUnit.SECONDS), trigger.getLog());
+        j.waitUntilNoActivity();
+
+        assertTrue(p.getBuilds().stream().count() > 0);
+    }
+
+    @Test
+    void publishPollEvent(JenkinsRule j) throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+        TestTrigger trigger = addTriggeredTrigger(p);
+
+        assertTrue(trigger.poll().get(60, TimeUnit.SECONDS), trigger.getLog());
+        j.waitUntilNoActivity();
+
+        XTriggerPollEvent event = j.jenkins.getExtensionList(RecordingPollListener.class).get(0).events.poll(60, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals(p.getFullName(), event.getJobName());
+        assertEquals(XTriggerPollEvent.Outcome.CHANGES, event.getOutcome());
+        assertNull(event.getErrorClass());
+        assertTrue(event.getCheckMillis() >= 0);
+    }
+
+    @Test
+    void publishSkippedPollEvent(JenkinsRule j) throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+        p.disable();
+        TestTrigger trigger = addTriggeredTrigger(p);
+
+        assertFalse(trigger.poll().get(60, TimeUnit.SECONDS));
+
+        XTriggerPollEvent event = j.jenkins.getExtensionList(RecordingPollListener.class).get(0).events.poll(60, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals(p.getFullName(), event.getJobName());
+        assertEquals(XTriggerPollEvent.Outcome.SKIPPED, event.getOutcome());
+        assertNull(event.getNodeName());
+        assertTrue(trigger.getLog().contains("The job is not buildable"), trigger.getLog());
+    }
+
+    @Test
+    void buildFolderJobsOnlyWhenSelected(JenkinsRule j) throws Exception {
+        MockFolder folder = j.createFolder("folder");
+        FreeStyleProject p = folder.createProject(FreeStyleProject.class, "job");
+        FreeStyleProject disabled = folder.createProject(FreeStyleProject.class, "disabled");
+        disabled.disable();
+        MockFolder subFolder = folder.createProject(MockFolder.class, "sub");
+        FreeStyleProject nested = subFolder.createProject(FreeStyleProject.class, "nested");
+
+        XTriggerLog log = new XTriggerLog(null);
+        assertTrue(new TestTrigger().getAffectedJobs(log).isEmpty());
+        assertEquals(Set.of(p, nested), new HashSet<>(new FolderTestTrigger(folder).getAffectedJobs(log)));
+    }
+
+    /**
+     * Adds a trigger finding changes on each poll to the job and starts it
+     */
+    private static TestTrigger addTriggeredTrigger(FreeStyleProject p) throws IOException {
+        TestTrigger trigger = addTrigger(p, new TestTrigger());
         trigger.trigger();
+        return trigger;
+    }
+
+    private static <T extends TestTrigger> T addTrigger(FreeStyleProject p, T trigger) throws IOException {
+        p.addTrigger(trigger);
         trigger.start(p, true);
-        trigger.run();
+        return trigger;
+    }
 
-        Thread.sleep(60000);
+    @TestExtension
+    public static class RecordingPollListener extends XTriggerPollListener {
 
-        assertTrue(p.getBuilds().stream().count() > 0);
+        final BlockingQueue<XTriggerPollEvent> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onPoll(XTriggerPollEvent event) {
+            events.add(event);
+        }
+    }
+
+    public static class AsyncTestTrigger extends TestTrigger {
+
+        final transient CompletableFuture<Boolean> check = new CompletableFuture<>();
+
+        @Override
+        protected CompletableFuture<Boolean> checkIfModifiedAsync(Node pollingNode, XTriggerLog log) {
+            return check;
+        }
+    }
+
+    /**
+     * Builds all the buildable jobs of the folder
+     */
+    public static class FolderTestTrigger extends TestTrigger {
+
+        private final transient MockFolder folder;
+
+        FolderTestTrigger(MockFolder folder) {
+            this.folder = folder;
+        }
+
+        @Override
+        protected List<Job<?, ?>> getAffectedJobs(XTriggerLog log) {
+            return getBuildableJobs(folder);
+        }
     }
 }
@@ -0,0 +1,123 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class RemoteContextCheckTest {
+
+    private static final long TTL = 60_000;
+
+    private final XTriggerLog log = new XTriggerLog(null);
+
+    @Test
+    void compareWithPreviousContext() throws Exception {
+        StringComparator comparator = new StringComparator();
+        comparator.next = "a";
+        assertNull(check("compare", null, comparator).getChanged());
+
+        comparator.next = "b";
+        RemoteContextCheck.Result result = check("compare", "a", comparator);
+        assertTrue(result.getChanged());
+        assertEquals("b", result.getFingerprint());
+        assertEquals(List.of("a->b"), comparator.comparisons);
+    }
+
+    @Test
+    void keepPreviousContextWhenComparisonFails() throws Exception {
+        StringComparator comparator = new StringComparator();
+        comparator.next = "a";
+        check("failure", null, comparator);
+
+        comparator.next = "b";
+        comparator.failing = true;
+        assertThrows(XTriggerException.class, () -> check("failure", "a", comparator));
+
+        comparator.failing = false;
+        assertTrue(check("failure", "a", comparator).getChanged());
+        assertEquals(List.of("a->b"), comparator.comparisons);
+    }
+
+    @Test
+    void dropContextsOverTheLimit() throws Exception {
+        StringComparator comparator = new StringComparator();
+        comparator.next = "a";
+        check("evicted", null, comparator);
+        new RemoteContextCheck<>("kept", null, comparator, log, TTL, 1).call();
+        assertEquals(1, RemoteContextCheck.size());
+
+        // compared on the fingerprints only
+        assertFalse(check("evicted", "a", comparator).getChanged());
+        assertTrue(comparator.comparisons.isEmpty());
+    }
+
+    @Test
+    void dropExpiredContexts() throws Exception {
+        StringComparator comparator = new StringComparator();
+        comparator.next = "a";
+        check("expired", null, comparator);
+        Thread.sleep(10);
+
+        comparator.next = "b";
+        assertTrue(new RemoteContextCheck<>("expired", "a", comparator, log, 1, 1000).call().getChanged());
+        assertTrue(comparator.comparisons.isEmpty());
+    }
+
+    @Test
+    void dropContextOfStoppedTrigger() throws Exception {
+        StringComparator comparator = new StringComparator();
+        comparator.next = "a";
+        check("stopped", null, comparator);
+
+        assertTrue(new RemoteContextCheck.Removal("stopped").call());
+        assertFalse(new RemoteContextCheck.Removal("stopped").call());
+    }
+
+    private RemoteContextCheck.Result check(String key, String expectedFingerprint, StringComparator comparator) throws XTriggerException {
+        return new RemoteContextCheck<>(key, expectedFingerprint, comparator, log, TTL, 1000).call();
+    }
+
+    private static final class StringContext implements XTriggerContext {
+
+        private final String value;
+
+        StringContext(String value) {
+            this.value = value;
+        }
+    }
+
+    private static final class StringComparator implements XTriggerContextComparator<StringContext> {
+
+        private String next;
+
+        private boolean failing;
+
+        private final List<String> comparisons = new ArrayList<>();
+
+        @Override
+        public StringContext capture(XTriggerLog log) {
+            return new StringContext(next);
+        }
+
+        @Override
+        public String fingerprint(StringContext context) {
+            return context.value;
+        }
+
+        @Override
+        public boolean isModified(StringContext oldContext, StringContext newContext, XTriggerLog log) throws XTriggerException {
+            if (failing) {
+                throw new XTriggerException("comparison failed");
+            }
+            comparisons.add(oldContext.value + "->" + newContext.value);
+            return !oldContext.value.equals(newContext.value);
+        }
+    }
+}
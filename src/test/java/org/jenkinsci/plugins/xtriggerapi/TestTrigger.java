@@ -24,6 +24,8 @@
 package org.jenkinsci.plugins.xtriggerapi;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.ExtensionList;
 import hudson.FilePath;
 import hudson.model.Action;
 import hudson.model.Node;
@@ -31,6 +33,7 @@ import hudson.model.Node;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serial;
+import java.util.concurrent.CompletableFuture;
 /**
  * Explicit trigger for testing purposes.
  *
@@ -43,6 +46,11 @@ public class TestTrigger extends AbstractTrigger {
     private final File log;
     private volatile boolean triggered = false;
 
+    /**
+     * Completed by the first poll finding changes, once its build is scheduled
+     */
+    private final transient CompletableFuture<Boolean> changesFound = new CompletableFuture<>();
+
     public TestTrigger() throws IllegalArgumentException {
         super("* * * * *");
         try {
@@ -57,6 +65,19 @@ public class TestTrigger extends AbstractTrigger {
         triggered = true;
     }
 
+    public CompletableFuture<Boolean> getChangesFound() {
+        return changesFound;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> poll() {
+        return super.poll().whenComplete((changed, error) -> {
+            if (Boolean.TRUE.equals(changed)) {
+                changesFound.complete(true);
+            }
+        });
+    }
+
     @Override
     protected File getLogFile() {
         return log;
@@ -92,11 +113,11 @@ public class TestTrigger extends AbstractTrigger {
     }
 
     @Override
-    public Descriptor getDescriptor() {
-        return DESCRIPTOR;
+    public XTriggerDescriptor getDescriptor() {
+        return ExtensionList.lookupSingleton(Descriptor.class);
     }
 
-    private static final Descriptor DESCRIPTOR = new Descriptor();
+    @Extension
     public static final class Descriptor extends XTriggerDescriptor {
         @NonNull
         @Override
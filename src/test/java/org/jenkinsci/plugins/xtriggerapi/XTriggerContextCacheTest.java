@@ -0,0 +1,68 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class XTriggerContextCacheTest {
+
+    private final XTriggerLog log = new XTriggerLog(null);
+
+    @Test
+    void shareContextWithinTtl() throws Exception {
+        XTriggerContextCache cache = new XTriggerContextCache(60_000);
+        AtomicInteger captures = new AtomicInteger();
+        Object context = new Object();
+
+        assertSame(context, cache.get("key", () -> { captures.incrementAndGet(); return context; }, log));
+        assertSame(context, cache.get("key", () -> { captures.incrementAndGet(); return new Object(); }, log));
+        cache.get("other", () -> { captures.incrementAndGet(); return new Object(); }, log);
+
+        assertEquals(2, captures.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(33, cache.getHitRate());
+    }
+
+    @Test
+    void shareCaptureInProgress() {
+        XTriggerContextCache cache = new XTriggerContextCache(60_000);
+        CompletableFuture<Object> capture = new CompletableFuture<>();
+
+        CompletableFuture<Object> first = cache.getAsync("key", () -> capture, log);
+        CompletableFuture<Object> second = cache.getAsync("key", CompletableFuture::new, log);
+        assertFalse(second.isDone());
+
+        Object context = new Object();
+        capture.complete(context);
+        assertSame(context, first.join());
+        assertSame(context, second.join());
+    }
+
+    @Test
+    void doNotShareFailedCapture() throws Exception {
+        XTriggerContextCache cache = new XTriggerContextCache(60_000);
+
+        assertThrows(XTriggerException.class, () -> cache.get("key", () -> { throw new XTriggerException("unreachable"); }, log));
+        Object context = new Object();
+        assertSame(context, cache.get("key", () -> context, log));
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void captureAgainAfterTtl() throws Exception {
+        XTriggerContextCache cache = new XTriggerContextCache(1);
+        cache.get("key", Object::new, log);
+        Thread.sleep(10);
+
+        Object context = new Object();
+        assertSame(context, cache.get("key", () -> context, log));
+        assertEquals(0, cache.getHits());
+    }
+}
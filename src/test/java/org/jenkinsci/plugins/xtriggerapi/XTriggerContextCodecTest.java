@@ -0,0 +1,171 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class XTriggerContextCodecTest {
+
+    @Test
+    void roundTrip() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        XTriggerContextOutput out = new XTriggerContextOutput(bytes);
+        Map<String, String> map = new LinkedHashMap<>();
+        map.put("a", "same");
+        map.put("b", "same");
+        out.writeBoolean(true);
+        out.writeInt(Integer.MIN_VALUE);
+        out.writeLong(Long.MAX_VALUE);
+        out.writeString(null);
+        out.writeString("héllo");
+        out.writeString("héllo");
+        out.writeIntArray(new int[] {-1, 0, 300});
+        out.writeLongArray(new long[] {-5L, 1L << 40});
+        out.writeStringList(Arrays.asList("x", null, "x"));
+        out.writeStringMap(map);
+
+        XTriggerContextInput in = new XTriggerContextInput(new ByteArrayInputStream(bytes.toByteArray()));
+        assertTrue(in.readBoolean());
+        assertEquals(Integer.MIN_VALUE, in.readInt());
+        assertEquals(Long.MAX_VALUE, in.readLong());
+        assertNull(in.readString());
+        assertEquals("héllo", in.readString());
+        assertEquals("héllo", in.readString());
+        assertArrayEquals(new int[] {-1, 0, 300}, in.readIntArray());
+        assertArrayEquals(new long[] {-5L, 1L << 40}, in.readLongArray());
+        assertEquals(Arrays.asList("x", null, "x"), in.readStringList());
+        assertEquals(map, in.readStringMap());
+    }
+
+    @Test
+    void readLargeArrays() throws Exception {
+        int[] ints = new int[5000];
+        long[] longs = new long[5000];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = i;
+            longs[i] = -i;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        XTriggerContextOutput out = new XTriggerContextOutput(bytes);
+        out.writeIntArray(ints);
+        out.writeLongArray(longs);
+
+        XTriggerContextInput in = new XTriggerContextInput(new ByteArrayInputStream(bytes.toByteArray()));
+        assertArrayEquals(ints, in.readIntArray());
+        assertArrayEquals(longs, in.readLongArray());
+    }
+
+    @Test
+    void rejectCorruptLengths() {
+        byte[] corruptLength = unsigned(Integer.MAX_VALUE - 16);
+        assertThrows(EOFException.class, () -> input(corruptLength).readIntArray());
+        assertThrows(EOFException.class, () -> input(corruptLength).readLongArray());
+        assertThrows(EOFException.class, () -> input(corruptLength).readStringList());
+        assertThrows(EOFException.class, () -> input(corruptLength).readStringMap());
+        assertThrows(EOFException.class, () -> input(corruptLength).readBytes());
+    }
+
+    private static XTriggerContextInput input(byte[] bytes) {
+        return new XTriggerContextInput(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * Encodes a variable-length unsigned integer as the lengths are written
+     */
+    private static byte[] unsigned(long value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        while ((value & ~0x7FL) != 0) {
+            bytes.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        bytes.write((int) value);
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void payloadUsesCodec() throws Exception {
+        ListContext context = new ListContext(Arrays.asList("one", "two", "one"));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(XTriggerContextPayload.of(context, new ListCodec()));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            @SuppressWarnings("unchecked")
+            XTriggerContextPayload<ListContext> payload = (XTriggerContextPayload<ListContext>) in.readObject();
+            assertEquals(context.values, payload.get().values);
+        }
+    }
+
+    @Test
+    void rejectForgedPayloadLengths() throws Exception {
+        ListContext context = new ListContext(Arrays.asList("one", "two"));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(XTriggerContextPayload.of(context, new ListCodec()));
+        }
+        byte[] encoded = XTriggerContextOutput.encode(context, new ListCodec());
+
+        assertThrows(InvalidObjectException.class, () -> readPayload(forgeLength(bytes.toByteArray(), encoded, -1)));
+        assertThrows(InvalidObjectException.class, () -> readPayload(forgeLength(bytes.toByteArray(), encoded, Integer.MAX_VALUE)));
+        assertThrows(EOFException.class, () -> readPayload(forgeLength(bytes.toByteArray(), encoded, encoded.length + 1000)));
+    }
+
+    /**
+     * Replaces the length written before the encoded context in the serialized payload
+     */
+    private static byte[] forgeLength(byte[] serialized, byte[] encoded, int length) {
+        byte[] written = ByteBuffer.allocate(4 + encoded.length).putInt(encoded.length).put(encoded).array();
+        for (int i = 0; i + written.length <= serialized.length; i++) {
+            if (Arrays.equals(serialized, i, i + written.length, written, 0, written.length)) {
+                ByteBuffer.wrap(serialized, i, 4).putInt(length);
+                return serialized;
+            }
+        }
+        throw new AssertionError("Encoded context not found in the payload");
+    }
+
+    private static Object readPayload(byte[] serialized) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+
+    private static final class ListContext implements XTriggerContext {
+
+        private final transient List<String> values;
+
+        ListContext(List<String> values) {
+            this.values = values;
+        }
+    }
+
+    private static final class ListCodec implements XTriggerContextCodec<ListContext> {
+
+        @Override
+        public void write(ListContext context, XTriggerContextOutput out) throws IOException {
+            out.writeStringList(context.values);
+        }
+
+        @Override
+        public ListContext read(XTriggerContextInput in) throws IOException {
+            return new ListContext(in.readStringList());
+        }
+    }
+}
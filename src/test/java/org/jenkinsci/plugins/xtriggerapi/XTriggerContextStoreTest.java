@@ -0,0 +1,123 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class XTriggerContextStoreTest {
+
+    /**
+     * Encoded size of a context of {@link #value(char)}
+     */
+    private static final int CONTEXT_BYTES = 103;
+
+    private final XTriggerContextStore store = new XTriggerContextStore(2 * CONTEXT_BYTES + CONTEXT_BYTES / 2);
+
+    private final ListCodec codec = new ListCodec();
+
+    @Test
+    void measureEncodedSize() throws Exception {
+        ListContext context = new ListContext(value('a'));
+        assertEquals(CONTEXT_BYTES, XTriggerContextOutput.encodedSize(context, codec));
+        assertEquals(CONTEXT_BYTES, XTriggerContextOutput.encode(context, codec).length);
+    }
+
+    @Test
+    void moveLeastRecentlyUsedOffHeap() throws Exception {
+        XTriggerContextStore.Slot<ListContext> first = newSlot('a');
+        XTriggerContextStore.Slot<ListContext> second = newSlot('b');
+        first.get();
+        newSlot('c');
+
+        assertEquals(2, store.getResidentContexts());
+        assertEquals(2 * CONTEXT_BYTES, store.getResidentBytes());
+        assertEquals(1, store.getSpilledContexts());
+        assertEquals(CONTEXT_BYTES, store.getSpilledBytes());
+        assertEquals(1, store.getSpills());
+        assertEquals(value('b'), second.get().values);
+        assertEquals(1, store.getLoads());
+    }
+
+    @Test
+    void reloadSpilledContext() throws Exception {
+        XTriggerContextStore.Slot<ListContext> first = newSlot('a');
+        newSlot('b');
+        newSlot('c');
+
+        assertEquals(value('a'), first.get().values);
+        assertEquals(1, store.getLoads());
+        assertEquals(2, store.getSpills());
+        assertEquals(2, store.getResidentContexts());
+        assertEquals(1, store.getSpilledContexts());
+    }
+
+    @Test
+    void replaceSpilledContext() throws Exception {
+        XTriggerContextStore.Slot<ListContext> first = newSlot('a');
+        newSlot('b');
+        newSlot('c');
+
+        first.set(new ListContext(value('d')));
+        assertEquals(value('d'), first.get().values);
+        assertEquals(0, store.getLoads());
+        assertEquals(2, store.getResidentContexts());
+        assertEquals(1, store.getSpilledContexts());
+        assertEquals(CONTEXT_BYTES, store.getSpilledBytes());
+    }
+
+    @Test
+    void releaseResidentAndSpilledContexts() throws Exception {
+        XTriggerContextStore.Slot<ListContext> first = newSlot('a');
+        XTriggerContextStore.Slot<ListContext> second = newSlot('b');
+        XTriggerContextStore.Slot<ListContext> third = newSlot('c');
+
+        first.release();
+        second.release();
+        third.release();
+        assertEquals(0, store.getResidentContexts());
+        assertEquals(0, store.getResidentBytes());
+        assertEquals(0, store.getSpilledContexts());
+        assertEquals(0, store.getSpilledBytes());
+        assertNull(first.get());
+    }
+
+    private XTriggerContextStore.Slot<ListContext> newSlot(char c) throws IOException {
+        XTriggerContextStore.Slot<ListContext> slot = store.newSlot(codec);
+        slot.set(new ListContext(value(c)));
+        return slot;
+    }
+
+    /**
+     * A list of one string of 100 characters
+     */
+    private static List<String> value(char c) {
+        return Collections.singletonList(String.valueOf(c).repeat(100));
+    }
+
+    private static final class ListContext implements XTriggerContext {
+
+        private final transient List<String> values;
+
+        ListContext(List<String> values) {
+            this.values = values;
+        }
+    }
+
+    private static final class ListCodec implements XTriggerContextCodec<ListContext> {
+
+        @Override
+        public void write(ListContext context, XTriggerContextOutput out) throws IOException {
+            out.writeStringList(context.values);
+        }
+
+        @Override
+        public ListContext read(XTriggerContextInput in) throws IOException {
+            return new ListContext(in.readStringList());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hudson.model.FreeStyleProject;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class XTriggerLifecycleTest {
+
+    @Test
+    void clearDeferredPollOnceRun(JenkinsRule j) throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+        CountingTrigger trigger = addTrigger(p);
+        XTriggerLifecycle.deferPoll(p);
+        assertTrue(XTriggerLifecycle.isDeferred(p));
+
+        assertFalse(trigger.poll().get(60, TimeUnit.SECONDS), trigger.getLog());
+        assertFalse(XTriggerLifecycle.isDeferred(p));
+    }
+
+    @Test
+    void resumeDeferredPollsInsteadOfCronTicks(JenkinsRule j) throws Exception {
+        FreeStyleProject first = j.createFreeStyleProject("first");
+        CountingTrigger firstTrigger = addTrigger(first);
+        firstTrigger.trigger();
+        FreeStyleProject second = j.createFreeStyleProject("second");
+        CountingTrigger secondTrigger = addTrigger(second);
+        XTriggerLifecycle.deferPoll(first);
+        XTriggerLifecycle.deferPoll(second);
+        XTriggerLifecycle.saveDeferredPolls();
+
+        // the second poll is resumed after half of the spread
+        XTriggerLifecycle.resumeDeferredPolls(TimeUnit.MINUTES.toMillis(20));
+
+        assertTrue(firstTrigger.getChangesFound().get(60, TimeUnit.SECONDS));
+        j.waitUntilNoActivity();
+        assertFalse(XTriggerLifecycle.isResuming(first));
+        assertFalse(XTriggerLifecycle.isDeferred(first));
+
+        assertTrue(XTriggerLifecycle.isResuming(second));
+        secondTrigger.run();
+        assertEquals(0, secondTrigger.polls.get());
+    }
+
+    @Test
+    void skipDeferredPollsOfRemovedItems(JenkinsRule j) throws Exception {
+        FreeStyleProject removed = j.createFreeStyleProject("removed");
+        addTrigger(removed);
+        FreeStyleProject kept = j.createFreeStyleProject("kept");
+        CountingTrigger keptTrigger = addTrigger(kept);
+        keptTrigger.trigger();
+        XTriggerLifecycle.deferPoll(removed);
+        XTriggerLifecycle.deferPoll(kept);
+        XTriggerLifecycle.saveDeferredPolls();
+        removed.delete();
+
+        XTriggerLifecycle.resumeDeferredPolls(0);
+
+        assertTrue(keptTrigger.getChangesFound().get(60, TimeUnit.SECONDS));
+        j.waitUntilNoActivity();
+        assertFalse(XTriggerLifecycle.isResuming(kept));
+        assertFalse(XTriggerLifecycle.isResuming(removed));
+    }
+
+    private static CountingTrigger addTrigger(FreeStyleProject p) throws IOException {
+        CountingTrigger trigger = new CountingTrigger();
+        p.addTrigger(trigger);
+        trigger.start(p, true);
+        return trigger;
+    }
+
+    public static class CountingTrigger extends TestTrigger {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient AtomicInteger polls = new AtomicInteger();
+
+        @Override
+        public CompletableFuture<Boolean> poll() {
+            polls.incrementAndGet();
+            return super.poll();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hudson.ExtensionList;
+import hudson.model.FreeStyleProject;
+import hudson.model.Item;
+import hudson.model.TaskListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serial;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.MockFolder;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class XTriggerLogRetentionTest {
+
+    @Test
+    void truncateAtSizeLimit() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] chunk = new byte[4096];
+        long chunks = XTriggerLogRetention.MAX_LOG_BYTES / chunk.length + 2;
+        try (OutputStream out = XTriggerLogRetention.limit(bytes)) {
+            for (long i = 0; i < chunks; i++) {
+                out.write(chunk);
+            }
+        }
+
+        long dropped = chunks * chunk.length - XTriggerLogRetention.MAX_LOG_BYTES;
+        byte[] marker = XTriggerLogRetention.truncationMarker(dropped);
+        assertEquals(XTriggerLogRetention.MAX_LOG_BYTES + marker.length, bytes.size());
+        assertTrue(bytes.toString(Charset.defaultCharset()).endsWith(new String(marker, Charset.defaultCharset())));
+    }
+
+    @Test
+    void keepLogUnderSizeLimit() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = XTriggerLogRetention.limit(bytes)) {
+            out.write("Polling started".getBytes(Charset.defaultCharset()));
+        }
+
+        assertEquals("Polling started", bytes.toString(Charset.defaultCharset()));
+    }
+
+    @Test
+    void deleteOrphanedLogs(JenkinsRule j) throws Exception {
+        FreeStyleProject current = j.createFreeStyleProject("current");
+        addTrigger(current, new JobDirectoryTrigger());
+        File currentLog = writeLog(current, JobDirectoryTrigger.LOG_NAME);
+
+        FreeStyleProject removed = j.createFreeStyleProject("removed");
+        JobDirectoryTrigger removedTrigger = addTrigger(removed, new JobDirectoryTrigger());
+        File orphanedLog = writeLog(removed, JobDirectoryTrigger.LOG_NAME);
+        removed.removeTrigger(removedTrigger.getDescriptor());
+        File otherFile = writeLog(removed, "other.log");
+
+        MockFolder folder = j.createFolder("folder");
+        File orphanedFolderLog = writeLog(folder, JobDirectoryTrigger.LOG_NAME);
+
+        FreeStyleProject failing = j.createFreeStyleProject("failing");
+        addTrigger(failing, new FailingTrigger());
+        File failingLog = writeLog(failing, JobDirectoryTrigger.LOG_NAME);
+
+        ExtensionList.lookupSingleton(XTriggerLogRetention.class).execute(TaskListener.NULL);
+
+        assertTrue(currentLog.isFile());
+        assertFalse(orphanedLog.exists());
+        assertTrue(otherFile.isFile());
+        assertFalse(orphanedFolderLog.exists());
+        // left as is, whatever the order of the jobs
+        assertTrue(failingLog.isFile());
+    }
+
+    private static <T extends TestTrigger> T addTrigger(FreeStyleProject p, T trigger) throws IOException {
+        p.addTrigger(trigger);
+        trigger.start(p, true);
+        return trigger;
+    }
+
+    private static File writeLog(Item item, String name) throws IOException {
+        File logFile = new File(item.getRootDir(), name);
+        Files.writeString(logFile.toPath(), "Polling started");
+        return logFile;
+    }
+
+    public static class JobDirectoryTrigger extends TestTrigger {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        static final String LOG_NAME = "xtrigger-test-polling.log";
+
+        @Override
+        protected File getLogFile() {
+            return new File(job.getRootDir(), LOG_NAME);
+        }
+    }
+
+    public static class FailingTrigger extends TestTrigger {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected File getLogFile() {
+            throw new IllegalStateException("no log for this trigger");
+        }
+    }
+}
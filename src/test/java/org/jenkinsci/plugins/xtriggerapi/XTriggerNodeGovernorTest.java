@@ -0,0 +1,88 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hudson.model.Node;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class XTriggerNodeGovernorTest {
+
+    private final XTriggerLog log = new XTriggerLog(null);
+
+    private Node first;
+
+    private Node second;
+
+    @BeforeEach
+    void setUp(JenkinsRule j) throws Exception {
+        first = j.createSlave("first", null, null);
+        second = j.createSlave("second", null, null);
+    }
+
+    @Test
+    void redirectToNodeWithFreeSlot() {
+        XTriggerNodeGovernor governor = new XTriggerNodeGovernor(1, 30);
+
+        assertSame(first, governor.acquire(List.of(first, second), log).join());
+        assertSame(second, governor.acquire(List.of(first, second), log).join());
+    }
+
+    @Test
+    void handReleasedSlotToParkedPoll() {
+        XTriggerNodeGovernor governor = new XTriggerNodeGovernor(1, 30);
+        assertSame(first, governor.acquire(List.of(first), log).join());
+
+        CompletableFuture<Node> parked = governor.acquire(List.of(first), log);
+        assertFalse(parked.isDone());
+        assertEquals(1, governor.getWaiting("first"));
+
+        governor.release(first);
+        assertSame(first, parked.getNow(null));
+        assertEquals(0, governor.getWaiting("first"));
+
+        // the slot went to the parked poll
+        assertFalse(governor.acquire(List.of(first), log).isDone());
+    }
+
+    @Test
+    void giveUpWhenNoSlotIsFreedInTime() throws Exception {
+        XTriggerNodeGovernor governor = new XTriggerNodeGovernor(1, 0);
+        assertSame(first, governor.acquire(List.of(first), log).join());
+
+        assertNull(governor.acquire(List.of(first), log).get(10, TimeUnit.SECONDS));
+
+        // the slot is not lost to the poll that gave up
+        governor.release(first);
+        assertSame(first, governor.acquire(List.of(first), log).join());
+    }
+
+    @Test
+    void dropSlotsOfRemovedNode() throws Exception {
+        XTriggerNodeGovernor governor = new XTriggerNodeGovernor(1, 30);
+        assertSame(first, governor.acquire(List.of(first), log).join());
+        CompletableFuture<Node> parked = governor.acquire(List.of(first), log);
+        assertEquals(1, governor.getNodeCount());
+
+        governor.nodeRemoved("first");
+        assertNull(parked.get(10, TimeUnit.SECONDS));
+        assertEquals(0, governor.getNodeCount());
+
+        // the end of the poll running on the removed node
+        governor.release(first);
+        assertEquals(0, governor.getNodeCount());
+        assertTrue(governor.acquire(List.of(second), log).isDone());
+    }
+}
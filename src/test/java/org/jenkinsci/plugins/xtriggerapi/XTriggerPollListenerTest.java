@@ -0,0 +1,34 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hudson.ExtensionList;
+import hudson.model.FreeStyleProject;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class XTriggerPollListenerTest {
+
+    @Test
+    void publishNothingWithoutEnabledListener(JenkinsRule j) throws Exception {
+        assertFalse(ExtensionList.lookupSingleton(XTriggerPollEventFileSink.class).isEnabled());
+        assertFalse(XTriggerPollListener.isListened());
+
+        FreeStyleProject p = j.createFreeStyleProject();
+        TestTrigger trigger = new TestTrigger();
+        p.addTrigger(trigger);
+        trigger.start(p, true);
+        long published = XTriggerPollEventQueue.get().getPublished();
+
+        assertFalse(trigger.poll().get(60, TimeUnit.SECONDS), trigger.getLog());
+        assertEquals(published, XTriggerPollEventQueue.get().getPublished());
+        assertTrue(ExtensionList.lookupSingleton(TestTrigger.Descriptor.class).getStatistics().getPolls() > 0);
+    }
+}
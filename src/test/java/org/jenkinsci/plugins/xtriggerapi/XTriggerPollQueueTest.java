@@ -0,0 +1,94 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class XTriggerPollQueueTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final List<String> polled = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void serveHighPriorityFirst() throws Exception {
+        XTriggerPollQueue queue = new XTriggerPollQueue(executor, TimeUnit.MINUTES.toMillis(2));
+        block(queue);
+
+        queue.submit(() -> polled.add("low"), XTriggerPriority.LOW);
+        queue.submit(() -> polled.add("normal"), XTriggerPriority.NORMAL);
+        queue.submit(() -> polled.add("high"), XTriggerPriority.HIGH);
+        assertEquals(1, queue.size(XTriggerPriority.LOW));
+
+        drain(queue);
+        assertEquals(List.of("high", "normal", "low"), polled);
+    }
+
+    @Test
+    void promotePollsWaitingTooLong() throws Exception {
+        // every poll has waited too long: served in submission order whatever its priority
+        XTriggerPollQueue queue = new XTriggerPollQueue(executor, 0);
+        block(queue);
+
+        queue.submit(() -> polled.add("low"), XTriggerPriority.LOW);
+        queue.submit(() -> polled.add("high"), XTriggerPriority.HIGH);
+        queue.submit(() -> polled.add("normal"), XTriggerPriority.NORMAL);
+
+        drain(queue);
+        assertEquals(List.of("low", "high", "normal"), polled);
+    }
+
+    @Test
+    void cancelPendingPolls() throws Exception {
+        XTriggerPollQueue queue = new XTriggerPollQueue(executor, TimeUnit.MINUTES.toMillis(2));
+        block(queue);
+
+        queue.submit(() -> polled.add("low"), XTriggerPriority.LOW);
+        queue.submit(() -> polled.add("high"), XTriggerPriority.HIGH);
+        assertEquals(2, queue.cancelPending().size());
+
+        drain(queue);
+        assertEquals(List.of(), polled);
+        assertEquals(0, queue.size(XTriggerPriority.HIGH));
+    }
+
+    /**
+     * Occupies the single polling thread until {@link #drain(XTriggerPollQueue)}
+     */
+    private void block(XTriggerPollQueue queue) throws InterruptedException {
+        queue.submit(() -> {
+            started.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, XTriggerPriority.HIGH);
+        started.await();
+    }
+
+    /**
+     * Releases the polling thread and waits for the pending polls to run
+     */
+    private void drain(XTriggerPollQueue queue) throws Exception {
+        released.countDown();
+        executor.submit(() -> { }).get(10, TimeUnit.SECONDS);
+    }
+}
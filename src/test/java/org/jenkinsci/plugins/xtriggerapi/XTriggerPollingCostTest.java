@@ -0,0 +1,67 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hudson.slaves.DumbSlave;
+import jenkins.security.MasterToSlaveCallable;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class XTriggerPollingCostTest {
+
+    @Test
+    void countResponsesToTheRequestsOfThePoll(JenkinsRule j) throws Exception {
+        DumbSlave agent = j.createOnlineSlave();
+
+        XTriggerPollingCost cost = new XTriggerPollingCost();
+        cost.beginCheck(agent);
+        assertEquals(10_000, agent.getChannel().call(new RandomBytes(10_000)).length);
+        cost.detachCheck();
+
+        // traffic of the controller on the same channel while the check is still running
+        assertEquals(100_000, agent.getChannel().call(new RandomBytes(100_000)).length);
+        cost.endCheck();
+
+        assertTrue(cost.getBytesSent() > 0);
+        assertTrue(cost.getBytesReceived() >= 10_000, "received " + cost.getBytesReceived());
+        assertTrue(cost.getBytesReceived() < 100_000, "received " + cost.getBytesReceived());
+    }
+
+    @Test
+    void ignoreTrafficOutsideOfTheChecks(JenkinsRule j) throws Exception {
+        DumbSlave agent = j.createOnlineSlave();
+
+        XTriggerPollingCost cost = new XTriggerPollingCost();
+        cost.beginCheck(agent);
+        cost.detachCheck();
+        agent.getChannel().call(new RandomBytes(10_000));
+        cost.endCheck();
+
+        assertEquals(0, cost.getBytesSent());
+        assertEquals(0, cost.getBytesReceived());
+    }
+
+    private static final class RandomBytes extends MasterToSlaveCallable<byte[], RuntimeException> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int size;
+
+        RandomBytes(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public byte[] call() {
+            byte[] bytes = new byte[size];
+            new Random(size).nextBytes(bytes);
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.jenkinsci.plugins.xtriggerapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hudson.ExtensionList;
+import hudson.model.FreeStyleProject;
+import hudson.slaves.DumbSlave;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class XTriggerPollingStatisticsTest {
+
+    @Test
+    void followRenamedAndDeletedJobs(JenkinsRule j) throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject("job");
+        XTriggerPollingStatistics statistics = getStatistics();
+        recordPoll(statistics, "job", null);
+
+        p.renameTo("renamed");
+        assertEquals(List.of("renamed"), getJobNames(statistics));
+
+        p.delete();
+        assertTrue(getJobNames(statistics).isEmpty());
+    }
+
+    @Test
+    void dropDeletedNodes(JenkinsRule j) throws Exception {
+        DumbSlave agent = j.createSlave("agent", null, null);
+        XTriggerPollingStatistics statistics = getStatistics();
+        recordPoll(statistics, "job", "agent");
+        assertEquals(1, statistics.getBusiestNodes(10).size());
+
+        j.jenkins.removeNode(agent);
+        assertTrue(statistics.getBusiestNodes(10).isEmpty());
+    }
+
+    private static XTriggerPollingStatistics getStatistics() {
+        return ExtensionList.lookupSingleton(TestTrigger.Descriptor.class).getStatistics();
+    }
+
+    private static void recordPoll(XTriggerPollingStatistics statistics, String jobName, String nodeName) {
+        statistics.pollQueued();
+        statistics.pollStarted();
+        statistics.pollCompleted(jobName, nodeName, 10, false, new XTriggerPollingCost());
+    }
+
+    private static List<String> getJobNames(XTriggerPollingStatistics statistics) {
+        return statistics.getSlowestJobs(10).stream()
+                .map(XTriggerPollingStatistics.JobSummary::getJobName)
+                .collect(Collectors.toList());
+    }
+}